@@ -0,0 +1,78 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Grams calculation with BigDecimal versus {@link NutrientVector}. Run with
+ * {@code mvn -Pbenchmark test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.openjdk.jmh.Main}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NutrientVectorBenchmark {
+    private static final int SIZE = 1024;
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private final BigDecimal[][] per100 = new BigDecimal[SIZE][4];
+    private final NutrientVector[] vectors = new NutrientVector[SIZE];
+    private final int[] amounts = new int[SIZE];
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < SIZE; i++) {
+            for (int j = 0; j < 4; j++) {
+                per100[i][j] = BigDecimal.valueOf(random.nextInt(90_000), 2);
+            }
+            vectors[i] = NutrientVector.of(per100[i][0], per100[i][1],
+                    per100[i][2], per100[i][3]);
+            amounts[i] = random.nextInt(1_000) + 1;
+        }
+    }
+
+    @Benchmark
+    public void bigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            BigDecimal amount = BigDecimal.valueOf(amounts[i]);
+            for (int j = 0; j < 4; j++) {
+                blackhole.consume(per100[i][j].multiply(amount)
+                        .divide(HUNDRED, 2, RoundingMode.HALF_UP));
+            }
+        }
+    }
+
+    @Benchmark
+    public void nutrientVector(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            blackhole.consume(vectors[i].multiplyDivide(amounts[i], 100, 2));
+        }
+    }
+
+    @Benchmark
+    public void nutrientVectorToBigDecimal(Blackhole blackhole) {
+        for (int i = 0; i < SIZE; i++) {
+            NutrientVector result = vectors[i].multiplyDivide(amounts[i], 100, 2);
+            blackhole.consume(result.getCalories());
+            blackhole.consume(result.getCarbohydrates());
+            blackhole.consume(result.getFat());
+            blackhole.consume(result.getProtein());
+        }
+    }
+}
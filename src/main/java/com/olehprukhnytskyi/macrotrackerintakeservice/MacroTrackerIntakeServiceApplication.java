@@ -9,6 +9,7 @@ import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cloud.openfeign.EnableFeignClients;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @OpenAPIDefinition(
         info = @Info(
@@ -28,6 +29,7 @@ import org.springframework.retry.annotation.EnableRetry;
 })
 @EnableRetry
 @EnableCaching
+@EnableScheduling
 @EnableFeignClients
 @SpringBootApplication
 public class MacroTrackerIntakeServiceApplication {
@@ -0,0 +1,80 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache lifetimes of intake day lists by the age of the day. Today and yesterday still
+ * change often, planned days change in bursts and older days almost never change. Cached
+ * days are validated against their day version on every read, so a long lifetime only
+ * keeps memory busy, it never serves stale data.
+ */
+@Component
+public class IntakeDayTtlPolicy implements RedisCacheWriter.TtlFunction {
+    private final Duration currentTtl;
+    private final Duration plannedTtl;
+    private final Duration pastTtl;
+    private final Clock clock;
+
+    @Autowired
+    public IntakeDayTtlPolicy(
+            @Value("${app.cache.intake-day.ttl.current:PT30M}") Duration currentTtl,
+            @Value("${app.cache.intake-day.ttl.planned:PT6H}") Duration plannedTtl,
+            @Value("${app.cache.intake-day.ttl.past:P7D}") Duration pastTtl) {
+        this(currentTtl, plannedTtl, pastTtl, Clock.systemDefaultZone());
+    }
+
+    IntakeDayTtlPolicy(Duration currentTtl, Duration plannedTtl, Duration pastTtl,
+                       Clock clock) {
+        this.currentTtl = currentTtl;
+        this.plannedTtl = plannedTtl;
+        this.pastTtl = pastTtl;
+        this.clock = clock;
+    }
+
+    @Override
+    public Duration getTimeToLive(Object key, Object value) {
+        return ttlFor(parseDate(String.valueOf(key)));
+    }
+
+    public Duration ttlFor(LocalDate date) {
+        return switch (age(date)) {
+            case CURRENT -> currentTtl;
+            case PLANNED -> plannedTtl;
+            case PAST -> pastTtl;
+        };
+    }
+
+    public CacheControl cacheControl() {
+        return CacheControl.noCache().cachePrivate();
+    }
+
+    private Age age(LocalDate date) {
+        LocalDate today = LocalDate.now(clock);
+        if (date == null || (!date.isBefore(today.minusDays(1)) && !date.isAfter(today))) {
+            return Age.CURRENT;
+        }
+        return date.isAfter(today) ? Age.PLANNED : Age.PAST;
+    }
+
+    private LocalDate parseDate(String key) {
+        try {
+            return LocalDate.parse(key.substring(key.lastIndexOf(':') + 1));
+        } catch (DateTimeParseException exception) {
+            return null;
+        }
+    }
+
+    private enum Age {
+        CURRENT,
+        PLANNED,
+        PAST
+    }
+}
@@ -0,0 +1,30 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the Redis circuit breaker. An open breaker is reported as {@code DEGRADED}
+ * rather than {@code DOWN}: the service keeps answering from the database, so it must
+ * not be taken out of rotation.
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisCacheHealthIndicator implements HealthIndicator {
+    static final Status DEGRADED = new Status("DEGRADED", "Serving without Redis cache");
+    private final RedisCircuitBreaker circuitBreaker;
+
+    @Override
+    public Health health() {
+        RedisCircuitBreaker.State state = circuitBreaker.getState();
+        Health.Builder builder = state == RedisCircuitBreaker.State.CLOSED
+                ? Health.up() : Health.status(DEGRADED);
+        return builder
+                .withDetail("circuitBreaker", state)
+                .withDetail("consecutiveFailures", circuitBreaker.getConsecutiveFailures())
+                .build();
+    }
+}
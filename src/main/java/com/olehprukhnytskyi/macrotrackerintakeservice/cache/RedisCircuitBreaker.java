@@ -0,0 +1,133 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fast-fail guard for Redis calls. After {@code failureThreshold} consecutive Redis
+ * failures the breaker opens and calls go straight to their fallback instead of waiting
+ * for the command timeout. Once {@code openDuration} has passed a single probe call is let
+ * through; its outcome closes or reopens the breaker.
+ */
+@Slf4j
+@Component
+public class RedisCircuitBreaker {
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoClock;
+    private final AtomicReference<State> state = new AtomicReference<>(State.CLOSED);
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final Counter failureCounter;
+    private final Counter shortCircuitedCounter;
+    private volatile long openedAt;
+
+    @Autowired
+    public RedisCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${app.redis.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${app.redis.circuit-breaker.open-duration:PT5S}") Duration openDuration) {
+        this(meterRegistry, failureThreshold, openDuration, System::nanoTime);
+    }
+
+    RedisCircuitBreaker(MeterRegistry meterRegistry, int failureThreshold,
+                        Duration openDuration, LongSupplier nanoClock) {
+        this.failureThreshold = failureThreshold;
+        this.openNanos = openDuration.toNanos();
+        this.nanoClock = nanoClock;
+        this.failureCounter = Counter.builder("cache.redis.failures")
+                .description("Redis calls that failed and fell back")
+                .register(meterRegistry);
+        this.shortCircuitedCounter = Counter.builder("cache.redis.short.circuited")
+                .description("Redis calls skipped because the circuit breaker was open")
+                .register(meterRegistry);
+        Gauge.builder("cache.redis.circuit.state", state, current -> current.get().ordinal())
+                .description("Redis circuit breaker state: 0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    public <T> T execute(Supplier<T> action, Supplier<T> fallback) {
+        if (!tryAcquire()) {
+            shortCircuitedCounter.increment();
+            return fallback.get();
+        }
+        T result;
+        try {
+            result = action.get();
+        } catch (DataAccessException exception) {
+            onFailure(exception);
+            return fallback.get();
+        } catch (RuntimeException exception) {
+            onSuccess();
+            throw exception;
+        }
+        onSuccess();
+        return result;
+    }
+
+    public void run(Runnable action, Runnable fallback) {
+        execute(() -> {
+            action.run();
+            return null;
+        }, () -> {
+            fallback.run();
+            return null;
+        });
+    }
+
+    public State getState() {
+        return state.get();
+    }
+
+    public int getConsecutiveFailures() {
+        return consecutiveFailures.get();
+    }
+
+    private boolean tryAcquire() {
+        State current = state.get();
+        if (current == State.CLOSED) {
+            return true;
+        }
+        return current == State.OPEN
+                && nanoClock.getAsLong() - openedAt >= openNanos
+                && state.compareAndSet(State.OPEN, State.HALF_OPEN);
+    }
+
+    private void onSuccess() {
+        consecutiveFailures.set(0);
+        if (state.getAndSet(State.CLOSED) != State.CLOSED) {
+            log.info("Redis circuit breaker closed");
+        }
+    }
+
+    private void onFailure(DataAccessException exception) {
+        failureCounter.increment();
+        int failures = consecutiveFailures.incrementAndGet();
+        State current = state.get();
+        if (current == State.HALF_OPEN
+                || (current == State.CLOSED && failures >= failureThreshold)) {
+            openedAt = nanoClock.getAsLong();
+            state.set(State.OPEN);
+            log.warn("Redis circuit breaker opened after {} consecutive failures", failures,
+                    exception);
+        } else {
+            log.debug("Redis call failed consecutiveFailures={}", failures, exception);
+        }
+    }
+
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+}
@@ -0,0 +1,237 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * {@link RedisCache} whose Redis calls go through the {@link RedisCircuitBreaker}. When
+ * Redis fails or the breaker is open, reads are answered from a bounded local copy of
+ * recently read values (up to {@code maxStale} old) or treated as a miss, so callers fall
+ * back to the database. Evictions that could not reach Redis are replayed once it answers
+ * again, so recovered Redis does not keep serving entries this instance invalidated.
+ * With a {@link UserCacheKeyIndex}, keys carrying a user hash tag are tracked per user and
+ * {@link #evictUser(Long)} removes them without scanning the keyspace.
+ */
+@Slf4j
+public class ResilientRedisCache extends RedisCache {
+    private static final int MAX_PENDING_EVICTIONS = 10_000;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final UserCacheKeyIndex keyIndex;
+    private final Map<Object, LocalEntry> local;
+    private final long maxStaleMillis;
+    private final Set<Object> pendingEvictions = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingUserEvictions = ConcurrentHashMap.newKeySet();
+    private final Counter staleCounter;
+    private final Counter missCounter;
+    private volatile boolean pendingClear;
+
+    protected ResilientRedisCache(String name, RedisCacheWriter cacheWriter,
+                                  RedisCacheConfiguration cacheConfiguration,
+                                  RedisCircuitBreaker circuitBreaker,
+                                  UserCacheKeyIndex keyIndex, int localMaxEntries,
+                                  Duration maxStale, MeterRegistry meterRegistry) {
+        super(name, cacheWriter, cacheConfiguration);
+        this.circuitBreaker = circuitBreaker;
+        this.keyIndex = keyIndex;
+        this.local = localMaxEntries > 0 ? boundedMap(localMaxEntries) : null;
+        this.maxStaleMillis = maxStale.toMillis();
+        this.staleCounter = Counter.builder("cache.local.fallback")
+                .tag("cache", name)
+                .tag("result", "stale")
+                .description("Reads answered from the local copy while Redis was unavailable")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("cache.local.fallback")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .description("Reads answered from the local copy while Redis was unavailable")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        return circuitBreaker.execute(() -> {
+            replayPendingEvictions();
+            Object value = super.lookup(key);
+            if (value != null) {
+                remember(key, value);
+            }
+            return value;
+        }, () -> fallback(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception exception) {
+            throw new ValueRetrievalException(key, valueLoader, exception);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        Object storeValue = toStoreValue(value);
+        circuitBreaker.run(() -> {
+            replayPendingEvictions();
+            super.put(key, value);
+            index(key);
+            remember(key, storeValue);
+        }, () -> remember(key, storeValue));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return circuitBreaker.execute(() -> {
+            ValueWrapper existing = super.putIfAbsent(key, value);
+            if (existing == null) {
+                index(key);
+            }
+            return existing;
+        }, () -> null);
+    }
+
+    @Override
+    public void evict(Object key) {
+        forget(key);
+        circuitBreaker.run(() -> {
+            replayPendingEvictions();
+            super.evict(key);
+        }, () -> deferEviction(key));
+    }
+
+    public void evictUser(Long userId) {
+        if (keyIndex == null) {
+            clear();
+            return;
+        }
+        if (local != null) {
+            String tag = CacheKeys.user(userId);
+            synchronized (local) {
+                local.keySet().removeIf(key -> String.valueOf(key).startsWith(tag));
+            }
+        }
+        circuitBreaker.run(() -> {
+            replayPendingEvictions();
+            keyIndex.evict(userId, keyPrefix());
+        }, () -> deferUserEviction(userId));
+    }
+
+    @Override
+    public void clear() {
+        if (local != null) {
+            local.clear();
+        }
+        circuitBreaker.run(() -> {
+            super.clear();
+            pendingClear = false;
+        }, () -> pendingClear = true);
+    }
+
+    private Object fallback(Object key) {
+        if (local == null) {
+            return null;
+        }
+        LocalEntry entry = local.get(key);
+        if (entry == null || System.currentTimeMillis() - entry.storedAt() > maxStaleMillis) {
+            missCounter.increment();
+            return null;
+        }
+        staleCounter.increment();
+        return entry.value();
+    }
+
+    private void remember(Object key, Object storeValue) {
+        if (local != null) {
+            local.put(key, new LocalEntry(storeValue, System.currentTimeMillis()));
+        }
+    }
+
+    private void forget(Object key) {
+        if (local != null) {
+            local.remove(key);
+        }
+    }
+
+    private void index(Object key) {
+        Long userId = keyIndex != null ? CacheKeys.userIdOf(key) : null;
+        if (userId != null) {
+            keyIndex.add(userId, createCacheKey(key));
+        }
+    }
+
+    private String keyPrefix() {
+        return getCacheConfiguration().getKeyPrefixFor(getName());
+    }
+
+    private void deferEviction(Object key) {
+        if (pendingEvictions.size() < MAX_PENDING_EVICTIONS) {
+            pendingEvictions.add(key);
+        } else {
+            pendingClear = true;
+        }
+    }
+
+    private void deferUserEviction(Long userId) {
+        if (pendingUserEvictions.size() < MAX_PENDING_EVICTIONS) {
+            pendingUserEvictions.add(userId);
+        } else {
+            pendingClear = true;
+        }
+    }
+
+    private void replayPendingEvictions() {
+        if (pendingClear) {
+            log.info("Replaying deferred clear of cache={}", getName());
+            super.clear();
+            pendingClear = false;
+            pendingEvictions.clear();
+            pendingUserEvictions.clear();
+            return;
+        }
+        for (Long userId : pendingUserEvictions) {
+            keyIndex.evict(userId, keyPrefix());
+            pendingUserEvictions.remove(userId);
+        }
+        if (pendingEvictions.isEmpty()) {
+            return;
+        }
+        log.info("Replaying {} deferred evictions of cache={}", pendingEvictions.size(),
+                getName());
+        for (Object key : pendingEvictions) {
+            super.evict(key);
+            pendingEvictions.remove(key);
+        }
+    }
+
+    private static Map<Object, LocalEntry> boundedMap(int maxEntries) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, LocalEntry> eldest) {
+                return size() > maxEntries;
+            }
+        });
+    }
+
+    private record LocalEntry(Object value, long storedAt) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+/**
+ * Creates {@link ResilientRedisCache} instances. Caches listed in {@code withoutLocalCopy}
+ * never serve stale local values, for data whose readers validate freshness themselves.
+ * Caches listed in {@code indexedCaches} hold many keys per user and track them in the
+ * {@link UserCacheKeyIndex}.
+ */
+public class ResilientRedisCacheManager extends RedisCacheManager {
+    private final RedisCircuitBreaker circuitBreaker;
+    private final UserCacheKeyIndex keyIndex;
+    private final MeterRegistry meterRegistry;
+    private final int localMaxEntries;
+    private final Duration maxStale;
+    private final Set<String> withoutLocalCopy;
+    private final Set<String> indexedCaches;
+
+    public ResilientRedisCacheManager(RedisCacheWriter cacheWriter,
+                                      RedisCacheConfiguration defaultCacheConfiguration,
+                                      Map<String, RedisCacheConfiguration> cacheConfigurations,
+                                      RedisCircuitBreaker circuitBreaker,
+                                      UserCacheKeyIndex keyIndex,
+                                      MeterRegistry meterRegistry, int localMaxEntries,
+                                      Duration maxStale, Set<String> withoutLocalCopy,
+                                      Set<String> indexedCaches) {
+        super(cacheWriter, defaultCacheConfiguration, cacheConfigurations);
+        this.circuitBreaker = circuitBreaker;
+        this.keyIndex = keyIndex;
+        this.meterRegistry = meterRegistry;
+        this.localMaxEntries = localMaxEntries;
+        this.maxStale = maxStale;
+        this.withoutLocalCopy = withoutLocalCopy;
+        this.indexedCaches = indexedCaches;
+    }
+
+    @Override
+    protected RedisCache createRedisCache(String name,
+                                          RedisCacheConfiguration cacheConfiguration) {
+        return new ResilientRedisCache(name, getCacheWriter(),
+                cacheConfiguration != null ? cacheConfiguration : getDefaultCacheConfiguration(),
+                circuitBreaker, indexedCaches.contains(name) ? keyIndex : null,
+                withoutLocalCopy.contains(name) ? 0 : localMaxEntries, maxStale, meterRegistry);
+    }
+}
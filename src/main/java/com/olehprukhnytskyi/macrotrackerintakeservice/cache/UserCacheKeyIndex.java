@@ -0,0 +1,77 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Set of the live cache keys of one user ({@code cache:keys:{userId}}). The set shares the
+ * hash tag of the keys it tracks, so evicting a user deletes all tracked keys with
+ * slot-local multi-key commands instead of a {@code SCAN} over the keyspace. Members of
+ * entries that expired on their own stay in the set until the next eviction or until the
+ * set itself expires; deleting them again is harmless.
+ */
+@Slf4j
+@Component
+public class UserCacheKeyIndex {
+    private static final String KEY_PREFIX = "cache:keys:";
+    private static final int DELETE_BATCH_SIZE = 500;
+    private final StringRedisTemplate redisTemplate;
+    private final long ttlMillis;
+
+    public UserCacheKeyIndex(StringRedisTemplate redisTemplate,
+                             @Value("${app.cache.key-index.ttl:P35D}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public void add(Long userId, String cacheKey) {
+        byte[] indexKey = bytes(indexKey(userId));
+        byte[] member = bytes(cacheKey);
+        redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            connection.setCommands().sAdd(indexKey, member);
+            connection.keyCommands().pExpire(indexKey, ttlMillis);
+            return null;
+        });
+    }
+
+    public int evict(Long userId, String keyPrefix) {
+        String indexKey = indexKey(userId);
+        Set<String> members = redisTemplate.opsForSet().members(indexKey);
+        if (members == null || members.isEmpty()) {
+            return 0;
+        }
+        List<String> keys = members.stream()
+                .filter(member -> member.startsWith(keyPrefix))
+                .toList();
+        for (int from = 0; from < keys.size(); from += DELETE_BATCH_SIZE) {
+            byte[][] batch = keys.subList(from, Math.min(from + DELETE_BATCH_SIZE, keys.size()))
+                    .stream()
+                    .map(UserCacheKeyIndex::bytes)
+                    .toArray(byte[][]::new);
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.keyCommands().del(batch);
+                connection.setCommands().sRem(bytes(indexKey), batch);
+                return null;
+            });
+        }
+        log.debug("Evicted {} cached keys of userId={} prefix={}", keys.size(), userId,
+                keyPrefix);
+        return keys.size();
+    }
+
+    static String indexKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
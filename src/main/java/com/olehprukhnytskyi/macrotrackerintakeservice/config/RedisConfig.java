@@ -7,16 +7,26 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.IntakeDayTtlPolicy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.RedisCircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCacheManager;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.UserCacheKeyIndex;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.BigDecimalJsonSerializer;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CachedDayResponseSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.cache.BatchStrategies;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
@@ -25,6 +35,8 @@ import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 @Configuration
 public class RedisConfig {
+    private static final int CACHE_CLEAN_BATCH_SIZE = 500;
+
     private ObjectMapper createRedisObjectMapper() {
         ObjectMapper mapper = new ObjectMapper();
         mapper.registerModule(new JavaTimeModule());
@@ -63,7 +75,14 @@ public class RedisConfig {
     }
 
     @Bean
-    public RedisCacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public RedisCacheManager cacheManager(
+            RedisConnectionFactory connectionFactory,
+            RedisCircuitBreaker circuitBreaker,
+            IntakeDayTtlPolicy intakeDayTtlPolicy,
+            UserCacheKeyIndex userCacheKeyIndex,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache.local.max-entries:1000}") int localMaxEntries,
+            @Value("${app.cache.local.max-stale:PT10M}") Duration localMaxStale) {
         ObjectMapper redisObjectMapper = createRedisObjectMapper();
         GenericJackson2JsonRedisSerializer serializer =
                 new GenericJackson2JsonRedisSerializer(redisObjectMapper);
@@ -77,11 +96,16 @@ public class RedisConfig {
                         .fromSerializer(serializer));
 
         Map<String, RedisCacheConfiguration> configs = new HashMap<>();
-        configs.put(CacheConstants.USER_INTAKES, defaultConfig.entryTtl(Duration.ofHours(6)));
+        configs.put(CacheConstants.USER_INTAKES, defaultConfig.entryTtl(intakeDayTtlPolicy)
+                .enableTimeToIdle()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair
+                        .fromSerializer(new CachedDayResponseSerializer())));
 
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfig)
-                .withInitialCacheConfigurations(configs)
-                .build();
+        RedisCacheWriter cacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(
+                connectionFactory, BatchStrategies.scan(CACHE_CLEAN_BATCH_SIZE));
+        return new ResilientRedisCacheManager(cacheWriter, defaultConfig, configs,
+                circuitBreaker, userCacheKeyIndex, meterRegistry, localMaxEntries, localMaxStale,
+                Set.of(CacheConstants.USER_INTAKES),
+                Set.of(CacheConstants.USER_INTAKES, CacheConstants.MEAL_TEMPLATE_PAGES));
     }
 }
@@ -0,0 +1,106 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} event while requests run on virtual
+ * threads. A pinned thread keeps its carrier busy while it blocks, so a library that blocks
+ * inside {@code synchronized} caps concurrency at the carrier count again. Each pin is
+ * recorded in the {@code virtual.thread.pinned} timer, tagged with the library that held
+ * the monitor: the connection pool, the Redis client, Hibernate, this service, or
+ * {@code other}.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.virtual-threads.pinning-monitor.enabled",
+        havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final Map<String, String> SOURCES = Map.of(
+            "com.zaxxer.hikari.", "hikari",
+            "io.lettuce.", "lettuce",
+            "org.hibernate.", "hibernate");
+    private static final String APPLICATION_PACKAGE = "com.olehprukhnytskyi.";
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${app.virtual-threads.pinning-monitor.threshold:PT0.02S}")
+            Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public synchronized void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (stream != null) {
+            stream.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return stream != null;
+    }
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() == null
+                ? List.of() : event.getStackTrace().getFrames();
+        String source = sourceOf(frames.stream()
+                .map(frame -> frame.getMethod().getType().getName())
+                .toList());
+        Timer.builder("virtual.thread.pinned")
+                .description("Time virtual threads spent pinned to their carrier")
+                .tag("source", source)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        log.warn("Virtual thread pinned for {} ms source={} at {}",
+                event.getDuration().toMillis(), source,
+                frames.isEmpty() ? "unknown" : describe(frames.getFirst()));
+    }
+
+    static String sourceOf(List<String> classNames) {
+        boolean application = false;
+        for (String className : classNames) {
+            for (Map.Entry<String, String> source : SOURCES.entrySet()) {
+                if (className.startsWith(source.getKey())) {
+                    return source.getValue();
+                }
+            }
+            application |= className.startsWith(APPLICATION_PACKAGE);
+        }
+        return application ? "application" : "other";
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
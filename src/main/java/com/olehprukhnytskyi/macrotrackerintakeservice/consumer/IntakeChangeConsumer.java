@@ -0,0 +1,66 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.consumer;
+
+import com.olehprukhnytskyi.exception.EventProcessingException;
+import com.olehprukhnytskyi.exception.error.EventErrorCode;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeChangeEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.IntakeChangeProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Maintains the intake read model from the intake changes this service publishes. Events
+ * of one poll are applied per user in one write, so a burst of writes updates each model
+ * once. A user whose changes cannot be applied loses the model, so it is rebuilt on the
+ * next change rather than served without them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "app.read-model.enabled", havingValue = "true")
+public class IntakeChangeConsumer {
+    private final IntakeReadModelService intakeReadModelService;
+
+    @KafkaListener(topics = IntakeChangeProducer.TOPIC, groupId = "intake-read-model",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${app.read-model.concurrency:2}")
+    public void handleIntakeChanges(List<ConsumerRecord<String, IntakeChangeEvent>> records) {
+        Map<Long, List<IntakeChangeEvent>> changes = new LinkedHashMap<>();
+        for (ConsumerRecord<String, IntakeChangeEvent> record : records) {
+            IntakeChangeEvent event = record.value();
+            if (event == null || event.getUserId() == null) {
+                continue;
+            }
+            changes.computeIfAbsent(event.getUserId(), ignored -> new ArrayList<>()).add(event);
+        }
+        changes.forEach(this::apply);
+        log.debug("Applied intake changes of {} users to the read model", changes.size());
+    }
+
+    private void apply(Long userId, List<IntakeChangeEvent> events) {
+        try {
+            intakeReadModelService.apply(userId, events);
+        } catch (Exception e) {
+            log.error("Error applying intake changes to read model for userId={}", userId, e);
+            dropModel(userId);
+            throw new EventProcessingException(EventErrorCode.KAFKA_PROCESSING_ERROR,
+                    "Failed to apply intake changes to the read model", e);
+        }
+    }
+
+    private void dropModel(Long userId) {
+        try {
+            intakeReadModelService.delete(userId);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to drop read model of userId={}", userId, exception);
+        }
+    }
+}
@@ -1,30 +1,76 @@
-package com.olehprukhnytskyi.macrotrackerintakeservice.consumer;
-
-import com.olehprukhnytskyi.event.UserDeletedEvent;
-import com.olehprukhnytskyi.exception.EventProcessingException;
-import com.olehprukhnytskyi.exception.error.EventErrorCode;
-import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeService;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.stereotype.Service;
-
-@Slf4j
-@Service
-@RequiredArgsConstructor
-public class UserEventConsumer {
-    private final IntakeService intakeService;
-
-    @KafkaListener(topics = "user-deleted", groupId = "intake-service")
-    public void handleUserDeleted(UserDeletedEvent event) {
-        try {
-            log.info("Processing user-deleted event for userId={}", event.getUserId());
-            intakeService.deleteUserIntakesRecursively(event.getUserId());
-            log.info("Successfully deleted all intakes for userId={}", event.getUserId());
-        } catch (Exception e) {
-            log.error("Error processing user-deleted event for userId={}", event.getUserId(), e);
-            throw new EventProcessingException(EventErrorCode.KAFKA_PROCESSING_ERROR,
-                    "Failed to process user-deleted event", e);
-        }
-    }
-}
+package com.olehprukhnytskyi.macrotrackerintakeservice.consumer;
+
+import com.olehprukhnytskyi.event.UserDeletedEvent;
+import com.olehprukhnytskyi.exception.EventProcessingException;
+import com.olehprukhnytskyi.exception.error.EventErrorCode;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.UserDataPurgeService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+public class UserEventConsumer {
+    private final UserDataPurgeService userDataPurgeService;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer lagTimer;
+
+    public UserEventConsumer(UserDataPurgeService userDataPurgeService,
+                             MeterRegistry meterRegistry) {
+        this.userDataPurgeService = userDataPurgeService;
+        this.batchSizeSummary = DistributionSummary.builder("user.deleted.batch.size")
+                .description("user-deleted records received per poll")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("user.deleted.lag")
+                .description("Time between publishing a user-deleted event and consuming it")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "user-deleted", groupId = "intake-service",
+            containerFactory = "batchListenerContainerFactory",
+            concurrency = "${app.user-deleted.concurrency:3}",
+            properties = "max.poll.records=${app.user-deleted.max-poll-records:500}")
+    public void handleUserDeleted(List<ConsumerRecord<String, UserDeletedEvent>> records) {
+        batchSizeSummary.record(records.size());
+        List<Long> userIds = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, UserDeletedEvent> record = records.get(i);
+            if (record.timestamp() > 0) {
+                lagTimer.record(Duration.ofMillis(
+                        Math.max(0, System.currentTimeMillis() - record.timestamp())));
+            }
+            if (record.value() == null || record.value().getUserId() == null) {
+                schedule(userIds);
+                log.error("Unreadable user-deleted event partition={} offset={}",
+                        record.partition(), record.offset());
+                throw new BatchListenerFailedException("Unreadable user-deleted event",
+                        new MessageConversionException("user-deleted event has no userId"), i);
+            }
+            userIds.add(record.value().getUserId());
+        }
+        schedule(userIds);
+        log.info("Scheduled data purge for {} users", userIds.size());
+    }
+
+    private void schedule(List<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        try {
+            userDataPurgeService.schedule(userIds);
+        } catch (Exception e) {
+            log.error("Error scheduling data purge for userIds={}", userIds, e);
+            throw new EventProcessingException(EventErrorCode.KAFKA_PROCESSING_ERROR,
+                    "Failed to process user-deleted events", e);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ExportJobResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJob;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeExportJobService;
+import com.olehprukhnytskyi.util.CustomHeaders;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/intake/export-jobs")
+@Tag(
+        name = "Intake Export Jobs API",
+        description = "Run long-range intake exports in the background and download the result"
+)
+public class ExportJobController {
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    private static final String GZIP_CONTENT_TYPE = "application/gzip";
+    private final IntakeExportJobService exportJobService;
+
+    @Operation(
+            summary = "Submit intake export job",
+            description = """
+            Queues a background export of all food logs for a bounded inclusive period.
+            Poll the returned job and download the compressed file once it is COMPLETED.
+            """
+    )
+    @PostMapping
+    public ResponseEntity<ExportJobResponseDto> submit(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "JSON") ExportFormat format) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        log.info("Submitting {} export job for userId={} range={}..{}",
+                format, userId, startDate, endDate);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .body(exportJobService.submit(userId, startDate, endDate, format));
+    }
+
+    @Operation(summary = "Get intake export job status")
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ExportJobResponseDto> getJob(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @PathVariable UUID jobId) {
+        return ResponseEntity.ok(exportJobService.getJob(jobId, userId));
+    }
+
+    @Operation(
+            summary = "Download intake export file",
+            description = "Returns the gzip-compressed export of a COMPLETED job"
+    )
+    @GetMapping("/{jobId}/file")
+    public void download(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @PathVariable UUID jobId,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        ExportJob job = exportJobService.getCompletedJob(jobId, userId);
+        log.info("Downloading export job={} for userId={}", jobId, userId);
+        response.setContentType(GZIP_CONTENT_TYPE);
+        response.setContentLengthLong(job.getSizeBytes());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                .filename(job.getDownloadFilename()).build().toString());
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, job.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, job.getSizeBytes());
+            return;
+        }
+        Files.copy(job.getFile(), response.getOutputStream());
+    }
+}
@@ -1,18 +1,29 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
 
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.IntakeDayTtlPolicy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncPushRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ShoppingListItemDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateIntakeRequestDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.ClientVersionPolicy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeDayResponseService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeExportService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeService;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.PlanningService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
 import com.olehprukhnytskyi.util.CustomHeaders;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import java.time.Instant;
@@ -22,7 +33,10 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -34,6 +48,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Slf4j
 @RestController
@@ -46,8 +62,13 @@ import org.springframework.web.bind.annotation.RestController;
 public class IntakeController {
     private static final String X_DEVICE_ID = "X-Device-Id";
     private final IntakeService intakeService;
+    private final IntakeDayResponseService intakeDayResponseService;
+    private final ResponseVersionService responseVersionService;
     private final ClientVersionPolicy clientVersionPolicy;
     private final PlanningService planningService;
+    private final IntakeExportService intakeExportService;
+    private final IntakeDayTtlPolicy intakeDayTtlPolicy;
+    private final IntakeReadModelService intakeReadModelService;
 
     @Operation(
             summary = "Get intake records",
@@ -59,25 +80,46 @@ public class IntakeController {
             - Empty: All dates
             
             Automatically calculates nutrition values based on food amount.
+            The JSON is served pre-rendered from cache, or from the intake read model when
+            it is enabled and up to date. The ETag is a per-day version counter (or the read
+            model version); a matching If-None-Match returns 304 without loading the day.
             """
     )
+    @ApiResponse(responseCode = "200", content = @Content(
+            mediaType = MediaType.APPLICATION_JSON_VALUE,
+            array = @ArraySchema(schema = @Schema(implementation = IntakeResponseDto.class))))
     @GetMapping
-    public ResponseEntity<List<IntakeResponseDto>> findByDate(
+    public ResponseEntity<byte[]> findByDate(
             @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
-            @RequestHeader(value = ClientVersionPolicy.APP_VERSION_CODE_HEADER, required = false)
-            String appVersionCode,
-            @RequestParam(required = false)
-            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
-            LocalDate date) {
+            @RequestHeader(value = ClientVersionPolicy.APP_VERSION_CODE_HEADER, required = false)
+            String appVersionCode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch,
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+            LocalDate date) {
         log.debug("Fetching intake records for userId={} date={}", userId, date);
-        List<IntakeResponseDto> intakes = intakeService.findByDate(date, userId);
-        if (!clientVersionPolicy.supportsPlanning(appVersionCode)) {
-            intakes = intakes.stream()
-                    .filter(intake -> intake.getStatus() != IntakeStatus.PLANNED)
-                    .toList();
-        }
-        log.debug("Fetched {} intake records for userId={}", intakes.size(), userId);
-        return ResponseEntity.ok(intakes);
+        boolean supportsPlanning = clientVersionPolicy.supportsPlanning(appVersionCode);
+        Long modelVersion = date == null ? null : intakeReadModelService.servingVersion(userId);
+        ResponseVersionService.Version version = modelVersion != null ? null
+                : responseVersionService.intakeDayVersion(userId, date);
+        String etag = modelVersion != null
+                ? responseVersionService.readModelEtag(modelVersion, supportsPlanning)
+                : responseVersionService.intakeDayEtag(version, supportsPlanning);
+        if (responseVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag)
+                    .cacheControl(intakeDayTtlPolicy.cacheControl())
+                    .varyBy(ClientVersionPolicy.APP_VERSION_CODE_HEADER).build();
+        }
+        CachedDayResponse day = modelVersion != null
+                ? intakeReadModelService.findByDate(userId, date, modelVersion)
+                : intakeDayResponseService.findByDate(date, userId, version);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(etag)
+                .cacheControl(intakeDayTtlPolicy.cacheControl())
+                .varyBy(ClientVersionPolicy.APP_VERSION_CODE_HEADER)
+                .body(day.body(supportsPlanning));
     }
 
     @Operation(
@@ -92,9 +134,42 @@ public class IntakeController {
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
         log.debug("Fetching intake records for userId={} range={}..{}",
                 userId, startDate, endDate);
+        if (intakeReadModelService.servingVersion(userId) != null) {
+            return ResponseEntity.ok(intakeReadModelService.findByDateRange(userId, startDate,
+                    endDate));
+        }
         return ResponseEntity.ok(intakeService.findByDateRange(startDate, endDate, userId));
     }
 
+    @Operation(
+            summary = "Stream intake records by date range",
+            description = """
+            Streams all food logs for a bounded inclusive period as JSON or CSV.
+            Rows are read through a forward-only cursor and written one at a time,
+            so memory use does not grow with the size of the range.
+            """
+    )
+    @GetMapping("/range/export")
+    public ResponseEntity<StreamingResponseBody> exportByDateRange(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(defaultValue = "JSON") ExportFormat format) {
+        if (startDate.isAfter(endDate)) {
+            throw new ResponseStatusException(
+                    HttpStatus.BAD_REQUEST, "startDate must not be after endDate");
+        }
+        StreamingResponseBody body = outputStream -> intakeExportService
+                .exportByDateRange(startDate, endDate, userId, format, outputStream);
+        String filename = "intakes-" + startDate + "-" + endDate + "."
+                + format.getFileExtension();
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(filename).build().toString())
+                .body(body);
+    }
+
     @Operation(
             summary = "Pull intake cache changes",
             description = "Retrieve all intake rows changed after the supplied timestamp, "
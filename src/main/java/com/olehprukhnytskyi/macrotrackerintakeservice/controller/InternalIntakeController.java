@@ -3,11 +3,14 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.DailyIntakeSummaryDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.projection.DailyIntakeSummaryProjection;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
 import com.olehprukhnytskyi.util.CustomHeaders;
 import java.time.LocalDate;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,22 +25,37 @@ import org.springframework.web.server.ResponseStatusException;
 @RequestMapping("/internal/intakes")
 public class InternalIntakeController {
     private final IntakeRepository intakeRepository;
+    private final ResponseVersionService responseVersionService;
+    private final IntakeReadModelService intakeReadModelService;
 
     @GetMapping("/daily-summary")
     public ResponseEntity<List<DailyIntakeSummaryDto>> dailySummary(
             @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
         if (from.isAfter(to)) {
             throw new ResponseStatusException(
                     HttpStatus.BAD_REQUEST, "from must not be after to");
         }
+        Long modelVersion = intakeReadModelService.servingVersion(userId);
+        String etag = modelVersion != null
+                ? responseVersionService.readModelEtag(modelVersion, true)
+                : responseVersionService.intakesEtag(userId);
+        if (responseVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        if (modelVersion != null) {
+            return ResponseEntity.ok().eTag(etag)
+                    .body(intakeReadModelService.dailySummary(userId, from, to));
+        }
         List<DailyIntakeSummaryDto> result = intakeRepository
                 .summarizeByUserIdAndDateRange(userId, from, to)
                 .stream()
                 .map(this::toDto)
                 .toList();
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok().eTag(etag).body(result);
     }
 
     private DailyIntakeSummaryDto toDto(DailyIntakeSummaryProjection projection) {
@@ -1,11 +1,15 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
 
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CacheablePage;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealPlanBatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateSummaryDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.RecipeIntakeRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateMealTemplateDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.MealService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
 import com.olehprukhnytskyi.util.CustomHeaders;
 import com.olehprukhnytskyi.util.IntakePeriod;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,6 +22,7 @@ import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -42,6 +47,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class MealController {
     private static final String X_DEVICE_ID = "X-Device-Id";
     private final MealService mealService;
+    private final ResponseVersionService responseVersionService;
 
     @Operation(
             summary = "Get user templates",
@@ -51,11 +57,68 @@ public class MealController {
             """)
     @GetMapping
     public ResponseEntity<List<MealTemplateResponseDto>> getAllTemplates(
-            @RequestHeader(CustomHeaders.X_USER_ID) Long userId) {
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
         log.info("Request to get all templates for userId={}", userId);
+        String etag = responseVersionService.templatesEtag(userId);
+        if (responseVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
         List<MealTemplateResponseDto> templates = mealService.getTemplates(userId);
         log.debug("Retrieved {} templates for userId={}", templates.size(), userId);
-        return ResponseEntity.ok(templates);
+        return ResponseEntity.ok().eTag(etag).body(templates);
+    }
+
+    @Operation(
+            summary = "Get user templates page",
+            description = """
+            Retrieve one page of meal templates ordered by name,
+            optionally limited to recipes or to names starting with a prefix.
+            Each page is cached separately.
+            """)
+    @GetMapping("/paged")
+    public ResponseEntity<CacheablePage<MealTemplateResponseDto>> getTemplatePage(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @Parameter(description = "Return recipe templates only")
+            @RequestParam(defaultValue = "false") boolean recipeOnly,
+            @Parameter(description = "Case-insensitive template name prefix")
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        log.info("Request to get templates page={} for userId={}", page, userId);
+        String etag = responseVersionService.templatesEtag(userId);
+        if (responseVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        CacheablePage<MealTemplateResponseDto> templates = mealService.getTemplatePage(userId,
+                recipeOnly, namePrefix, Math.max(page, 0), Math.clamp(size, 1, 100));
+        log.debug("Retrieved {} of {} templates for userId={}",
+                templates.getContent().size(), templates.getTotalElements(), userId);
+        return ResponseEntity.ok().eTag(etag).body(templates);
+    }
+
+    @Operation(
+            summary = "Get user template summaries",
+            description = """
+            Retrieve template headers with precomputed nutrient totals, without items.
+            Intended for lightweight template pickers.
+            """)
+    @GetMapping("/summary")
+    public ResponseEntity<List<MealTemplateSummaryDto>> getTemplateSummaries(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false)
+            String ifNoneMatch) {
+        log.info("Request to get template summaries for userId={}", userId);
+        String etag = responseVersionService.templatesEtag(userId);
+        if (responseVersionService.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        List<MealTemplateSummaryDto> summaries = mealService.getTemplateSummaries(userId);
+        log.debug("Retrieved {} template summaries for userId={}", summaries.size(), userId);
+        return ResponseEntity.ok().eTag(etag).body(summaries);
     }
 
     @Operation(
@@ -102,6 +165,26 @@ public class MealController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdIntakes);
     }
 
+    @Operation(
+            summary = "Apply meal templates in batch",
+            description = """
+            Apply several templates to several dates in one call, e.g. to plan a whole week.
+            Entries are idempotent by their requestId; already applied entries return
+            their existing intakes. Returns all intakes in the order of the entries.
+            """)
+    @PostMapping("/apply-batch")
+    public ResponseEntity<List<IntakeResponseDto>> applyTemplates(
+            @RequestHeader(CustomHeaders.X_USER_ID) Long userId,
+            @RequestHeader(value = X_DEVICE_ID, required = false) String deviceId,
+            @Valid @RequestBody MealPlanBatchRequestDto request) {
+        log.info("Applying {} template entries for userId={}",
+                request.getEntries().size(), userId);
+        List<IntakeResponseDto> createdIntakes = mealService
+                .applyTemplates(request.getEntries(), userId, deviceId);
+        log.debug("Batch applied successfully, returned {} records", createdIntakes.size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdIntakes);
+    }
+
     @Operation(
             summary = "Apply recipe template",
             description = """
@@ -0,0 +1,57 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ReadModelCheckDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/internal/read-model/users/{userId}")
+@Tag(
+        name = "Intake Read Model API",
+        description = "Operate the per-user intake read model kept in Redis"
+)
+public class ReadModelController {
+    private final IntakeReadModelService intakeReadModelService;
+
+    @Operation(
+            summary = "Rebuild a user's read model",
+            description = "Reloads the user's read model from the database and checks it."
+    )
+    @PostMapping("/rebuild")
+    public ResponseEntity<ReadModelCheckDto> rebuild(@PathVariable Long userId) {
+        requireEnabled();
+        log.info("Rebuilding intake read model for userId={}", userId);
+        intakeReadModelService.rebuild(userId);
+        return ResponseEntity.ok(intakeReadModelService.check(userId));
+    }
+
+    @Operation(
+            summary = "Check a user's read model",
+            description = "Compares every day of the user's read model with the database."
+    )
+    @GetMapping("/check")
+    public ResponseEntity<ReadModelCheckDto> check(@PathVariable Long userId) {
+        requireEnabled();
+        return ResponseEntity.ok(intakeReadModelService.check(userId));
+    }
+
+    private void requireEnabled() {
+        if (!intakeReadModelService.isEnabled()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Intake read model is disabled");
+        }
+    }
+}
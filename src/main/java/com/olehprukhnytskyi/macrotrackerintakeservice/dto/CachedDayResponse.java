@@ -0,0 +1,28 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * HTTP JSON of one user's intake day, rendered once for planning-capable clients and once
+ * for legacy clients that must not see planned entries. When the day has no planned entries
+ * both variants share the same bytes. {@code epoch} and {@code version} are the response
+ * version counters the day was rendered at; an entry whose counters differ from the current
+ * ones is stale.
+ */
+@Getter
+@AllArgsConstructor
+public class CachedDayResponse {
+    private final long epoch;
+    private final long version;
+    private final byte[] body;
+    private final byte[] legacyBody;
+
+    public byte[] body(boolean supportsPlanning) {
+        return supportsPlanning ? body : legacyBody;
+    }
+
+    public boolean isLegacyShared() {
+        return legacyBody == body;
+    }
+}
@@ -0,0 +1,44 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJobStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Background intake export job")
+public class ExportJobResponseDto {
+    @Schema(description = "Export job ID", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID jobId;
+
+    @Schema(description = "Current job status", example = "RUNNING")
+    private ExportJobStatus status;
+
+    @Schema(description = "Export file format", example = "CSV")
+    private ExportFormat format;
+
+    @Schema(description = "First exported date", example = "2025-01-01")
+    private LocalDate startDate;
+
+    @Schema(description = "Last exported date", example = "2025-12-31")
+    private LocalDate endDate;
+
+    @Schema(description = "Number of exported intake rows", example = "1200")
+    private long rowCount;
+
+    @Schema(description = "Compressed file size in bytes", example = "48213")
+    private long sizeBytes;
+
+    private Instant createdAt;
+
+    private Instant completedAt;
+}
@@ -0,0 +1,54 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import com.olehprukhnytskyi.util.IntakePeriod;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Request to apply several meal templates to planned days at once")
+public class MealPlanBatchRequestDto {
+    @Valid
+    @NotEmpty
+    @Size(max = 100, message = "At most 100 template applications can be planned at once")
+    @Schema(description = "Template applications to create")
+    private List<EntryDto> entries;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Schema(description = "Single template application within a batch")
+    public static class EntryDto {
+        @NotNull
+        @Schema(description = "ID of the template to apply", example = "42")
+        private Long templateId;
+
+        @NotNull
+        @Schema(description = "Date to apply the template to", example = "2024-01-15")
+        private LocalDate date;
+
+        @Schema(description = "Meal period, defaults to SNACK", example = "BREAKFAST")
+        private IntakePeriod period;
+
+        @NotNull
+        @Schema(description = "Client-generated ID grouping the created intakes")
+        private UUID mealGroupId;
+
+        @NotNull
+        @Schema(description = "Client-generated idempotency key for this entry")
+        private UUID requestId;
+    }
+}
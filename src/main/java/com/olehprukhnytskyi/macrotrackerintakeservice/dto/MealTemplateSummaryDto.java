@@ -0,0 +1,38 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.olehprukhnytskyi.util.UnitType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Meal template header with precomputed nutrient totals")
+public class MealTemplateSummaryDto {
+    private Long id;
+
+    @Schema(description = "Name of the meal template", example = "Morning Porridge")
+    private String name;
+
+    @JsonProperty("isRecipe")
+    private boolean recipe;
+
+    private Integer totalYieldAmount;
+
+    private UnitType yieldUnitType;
+
+    @Schema(description = "Total calories of all template items", example = "540.5")
+    private BigDecimal calories;
+
+    private BigDecimal carbohydrates;
+
+    private BigDecimal fat;
+
+    private BigDecimal protein;
+}
@@ -0,0 +1,34 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Comparison of a user's intake read model with the database")
+public class ReadModelCheckDto {
+    @Schema(description = "User ID", example = "42")
+    private Long userId;
+
+    @Schema(description = "Whether the user has a read model")
+    private boolean built;
+
+    @Schema(description = "Read model version", example = "1736938800000")
+    private Long version;
+
+    @Schema(description = "Whether the model was loaded after the user's latest write")
+    private boolean upToDate;
+
+    @Schema(description = "Number of days present in the model or the database", example = "180")
+    private int checkedDays;
+
+    @Schema(description = "Days whose intakes differ between the model and the database")
+    private List<LocalDate> mismatchedDates;
+}
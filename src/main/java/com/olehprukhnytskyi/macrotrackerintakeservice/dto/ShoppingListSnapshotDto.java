@@ -0,0 +1,23 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.dto;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ShoppingListSnapshotDto implements Serializable {
+    private LocalDate from;
+    private LocalDate to;
+    private List<ShoppingListItemDto> items;
+
+    public boolean covers(LocalDate requestedFrom, LocalDate requestedTo) {
+        return requestedFrom.equals(from) && requestedTo.equals(to);
+    }
+}
@@ -1,6 +1,8 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.event;
 
 import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,4 +17,7 @@ public class CacheInvalidationEvent {
     private String domain;
     private Instant changedAt;
     private String originDeviceId;
+    private Set<LocalDate> affectedDates;
+    private Set<Long> intakeIds;
+    private Long version;
 }
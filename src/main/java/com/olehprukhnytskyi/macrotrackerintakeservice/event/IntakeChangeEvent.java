@@ -0,0 +1,40 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.event;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One committed intake mutation, published to {@code intake-changes} keyed by user id.
+ * {@code before} is null for created intakes and {@code after} is null for deleted ones.
+ *
+ * <p>Delivery is at least once and retries may reorder events of one user, so consumers
+ * should drop events whose {@code intakeVersion} is not newer than the one they applied
+ * for the intake, and may use {@code eventId} to skip redeliveries.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakeChangeEvent {
+    public static final int SCHEMA_VERSION = 1;
+
+    private int schemaVersion;
+    private String eventId;
+    private Long userId;
+    private Long intakeId;
+    private ChangeType type;
+    private Long intakeVersion;
+    private Instant changedAt;
+    private String originDeviceId;
+    private IntakeSnapshot before;
+    private IntakeSnapshot after;
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,55 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.event;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.util.IntakePeriod;
+import com.olehprukhnytskyi.util.UnitType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * State of one intake row as carried by {@link IntakeChangeEvent}: everything an intake
+ * response shows, so projections such as the intake read model can be kept without
+ * reading the database.
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class IntakeSnapshot {
+    private Long id;
+    private String requestId;
+    private String mealGroupId;
+    private String mealTemplateName;
+    private String foodId;
+    private String foodName;
+    private String brand;
+    private Integer amount;
+    private UnitType unitType;
+    private LocalDate date;
+    private IntakePeriod intakePeriod;
+    private IntakeStatus status;
+    private BigDecimal calories;
+    private BigDecimal carbohydrates;
+    private BigDecimal fat;
+    private BigDecimal protein;
+    private BigDecimal caloriesPer100;
+    private BigDecimal carbohydratesPer100;
+    private BigDecimal fatPer100;
+    private BigDecimal proteinPer100;
+    private BigDecimal caloriesPerPiece;
+    private BigDecimal carbohydratesPerPiece;
+    private BigDecimal fatPerPiece;
+    private BigDecimal proteinPerPiece;
+    private List<UnitType> availableUnits;
+    private String originalFoodId;
+    private String moderationStatus;
+    private boolean verifiedByAdmin;
+    private Instant updatedAt;
+    private Long version;
+}
@@ -2,8 +2,10 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.mapper;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateItemDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateSummaryDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.MealTemplateSummaryProjection;
 import java.util.ArrayList;
 import java.util.List;
 import org.mapstruct.AfterMapping;
@@ -22,6 +24,14 @@ public interface MealTemplateMapper {
 
     List<MealTemplateResponseDto> toDtoList(List<MealTemplate> templates);
 
+    @Mapping(target = "calories", source = "totalCalories")
+    @Mapping(target = "carbohydrates", source = "totalCarbohydrates")
+    @Mapping(target = "fat", source = "totalFat")
+    @Mapping(target = "protein", source = "totalProtein")
+    MealTemplateSummaryDto toSummaryDto(MealTemplateSummaryProjection summary);
+
+    List<MealTemplateSummaryDto> toSummaryDtoList(List<MealTemplateSummaryProjection> summaries);
+
     @Mapping(target = "nutriments", source = "nutriments")
     @Mapping(target = "availableUnits", ignore = true)
     MealTemplateItemDto toItemDto(MealTemplateItem item);
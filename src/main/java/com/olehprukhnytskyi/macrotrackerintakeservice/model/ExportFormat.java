@@ -0,0 +1,14 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.model;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    JSON("application/json", "json"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+}
@@ -0,0 +1,30 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.model;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Builder
+public class ExportJob {
+    private final UUID id;
+    private final Long userId;
+    private final ExportFormat format;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final Path file;
+    private final Instant createdAt;
+    private volatile ExportJobStatus status;
+    private volatile long rowCount;
+    private volatile long sizeBytes;
+    private volatile Instant completedAt;
+
+    public String getDownloadFilename() {
+        return "intakes-" + startDate + "-" + endDate + "." + format.getFileExtension() + ".gz";
+    }
+}
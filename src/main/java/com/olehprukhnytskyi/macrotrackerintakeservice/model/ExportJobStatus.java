@@ -0,0 +1,8 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.model;
+
+public enum ExportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
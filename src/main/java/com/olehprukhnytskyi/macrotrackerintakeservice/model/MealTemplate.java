@@ -11,6 +11,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OrderColumn;
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.UUID;
 import lombok.AllArgsConstructor;
@@ -47,6 +48,22 @@ public class MealTemplate {
     @Enumerated(EnumType.STRING)
     private UnitType yieldUnitType;
 
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "decimal default 0")
+    private BigDecimal totalCalories = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "decimal default 0")
+    private BigDecimal totalCarbohydrates = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "decimal default 0")
+    private BigDecimal totalFat = BigDecimal.ZERO;
+
+    @Builder.Default
+    @Column(nullable = false, columnDefinition = "decimal default 0")
+    private BigDecimal totalProtein = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "template", cascade = CascadeType.ALL, orphanRemoval = true)
     @OrderColumn(name = "item_position")
     private List<MealTemplateItem> items;
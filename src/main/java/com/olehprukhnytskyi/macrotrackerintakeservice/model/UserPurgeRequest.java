@@ -0,0 +1,32 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@Entity
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserPurgeRequest {
+    @Id
+    private Long userId;
+
+    @Column(length = 32)
+    private String stage;
+
+    @Builder.Default
+    @Column(nullable = false)
+    private long deleted = 0;
+
+    @Column(nullable = false)
+    private Instant requestedAt;
+}
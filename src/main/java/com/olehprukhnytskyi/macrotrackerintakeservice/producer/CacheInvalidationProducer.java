@@ -1,59 +1,141 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.event.CacheInvalidationEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeDayDelta;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
-import lombok.RequiredArgsConstructor;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CacheInvalidationProducer {
-    private static final String TOPIC = "cache-invalidation";
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    public static final String TOPIC = "cache-invalidation";
+    public static final String INTAKE_DOMAIN = "INTAKE";
+    private static final String VERSION_KEY_PREFIX = "cache-invalidation:version:";
+    private final OutboxWriter outboxWriter;
+    private final StringRedisTemplate redisTemplate;
+    private final ResponseVersionService responseVersionService;
+    private final boolean enabled;
+    private final Counter receivedCounter;
+    private final Counter publishedCounter;
+    private final DistributionSummary coalescedSummary;
 
-    @Value("${app.cache-invalidation.enabled:true}")
-    private boolean enabled;
+    public CacheInvalidationProducer(
+            OutboxWriter outboxWriter,
+            StringRedisTemplate redisTemplate,
+            ResponseVersionService responseVersionService,
+            MeterRegistry meterRegistry,
+            @Value("${app.cache-invalidation.enabled:true}") boolean enabled) {
+        this.outboxWriter = outboxWriter;
+        this.redisTemplate = redisTemplate;
+        this.responseVersionService = responseVersionService;
+        this.enabled = enabled;
+        this.receivedCounter = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations requested by write paths")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidation events published after coalescing")
+                .register(meterRegistry);
+        this.coalescedSummary = DistributionSummary.builder("cache.invalidation.coalesced")
+                .description("Invalidations merged into each published event")
+                .register(meterRegistry);
+    }
 
     public void send(Long userId, String domain, String originDeviceId) {
+        send(userId, domain, originDeviceId, null, null);
+    }
+
+    public void send(Long userId, String domain, String originDeviceId,
+                     Collection<LocalDate> affectedDates, Collection<Long> intakeIds) {
+        send(userId, domain, originDeviceId, affectedDates, intakeIds, null);
+    }
+
+    public void send(Long userId, String originDeviceId, IntakeDayDelta delta) {
+        send(userId, INTAKE_DOMAIN, originDeviceId, delta.dates(), delta.intakeIds(), delta);
+    }
+
+    private void send(Long userId, String domain, String originDeviceId,
+                      Collection<LocalDate> affectedDates, Collection<Long> intakeIds,
+                      IntakeDayDelta delta) {
+        if (INTAKE_DOMAIN.equals(domain)) {
+            responseVersionService.intakesChanged(userId, affectedDates, delta);
+        }
         if (!enabled) {
             log.debug("Cache invalidation disabled domain={} userId={}", domain, userId);
             return;
         }
-        if (TransactionSynchronizationManager.isSynchronizationActive()) {
-            TransactionSynchronizationManager.registerSynchronization(
-                    new TransactionSynchronization() {
-                        @Override
-                        public void afterCommit() {
-                            publish(userId, domain, originDeviceId);
-                        }
-                    });
-            return;
-        }
-        publish(userId, domain, originDeviceId);
-    }
-
-    private void publish(Long userId, String domain, String originDeviceId) {
-        CacheInvalidationEvent event = CacheInvalidationEvent.builder()
+        receivedCounter.increment();
+        outboxWriter.append(TOPIC, String.valueOf(userId), CacheInvalidationEvent.builder()
                 .userId(userId)
                 .domain(domain)
                 .changedAt(Instant.now())
                 .originDeviceId(originDeviceId)
+                .affectedDates(affectedDates == null ? null : new HashSet<>(affectedDates))
+                .intakeIds(intakeIds == null ? null : new HashSet<>(intakeIds))
+                .build());
+    }
+
+    public CacheInvalidationEvent coalesce(List<CacheInvalidationEvent> events) {
+        CacheInvalidationEvent first = events.getFirst();
+        CacheInvalidationEvent merged = CacheInvalidationEvent.builder()
+                .userId(first.getUserId())
+                .domain(first.getDomain())
+                .changedAt(first.getChangedAt())
+                .originDeviceId(first.getOriginDeviceId())
+                .affectedDates(copy(first.getAffectedDates()))
+                .intakeIds(copy(first.getIntakeIds()))
                 .build();
-        kafkaTemplate.send(TOPIC, String.valueOf(userId), event)
-                .whenComplete((result, exception) -> {
-                    if (exception != null) {
-                        log.error("Failed to publish cache invalidation domain={} userId={}",
-                                domain, userId, exception);
-                        return;
-                    }
-                    log.debug("Published cache invalidation domain={} userId={}",
-                            domain, userId);
-                });
+        for (CacheInvalidationEvent event : events.subList(1, events.size())) {
+            if (!Objects.equals(merged.getOriginDeviceId(), event.getOriginDeviceId())) {
+                merged.setOriginDeviceId(null);
+            }
+            if (event.getChangedAt().isAfter(merged.getChangedAt())) {
+                merged.setChangedAt(event.getChangedAt());
+            }
+            merged.setAffectedDates(union(merged.getAffectedDates(), event.getAffectedDates()));
+            merged.setIntakeIds(union(merged.getIntakeIds(), event.getIntakeIds()));
+        }
+        merged.setVersion(nextVersion(merged.getUserId()));
+        publishedCounter.increment();
+        coalescedSummary.record(events.size());
+        return merged;
+    }
+
+    public void resetVersion(Long userId) {
+        redisTemplate.delete(VERSION_KEY_PREFIX + userId);
+    }
+
+    private Long nextVersion(Long userId) {
+        try {
+            return redisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + userId);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to assign cache invalidation version for userId={}", userId,
+                    exception);
+            return null;
+        }
+    }
+
+    private static <T> Set<T> copy(Set<T> values) {
+        return values == null ? null : new HashSet<>(values);
+    }
+
+    private static <T> Set<T> union(Set<T> first, Set<T> second) {
+        if (first == null || second == null) {
+            return null;
+        }
+        first.addAll(second);
+        return first;
     }
 }
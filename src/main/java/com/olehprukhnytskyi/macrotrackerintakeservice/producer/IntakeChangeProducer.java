@@ -0,0 +1,80 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeChangeEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes committed intake mutations with before and after snapshots through the outbox,
+ * so downstream services and the intake read model can keep their own projections instead
+ * of polling.
+ */
+@Slf4j
+@Component
+public class IntakeChangeProducer {
+    public static final String TOPIC = "intake-changes";
+    private final OutboxWriter outboxWriter;
+    private final IntakeReadModelService intakeReadModelService;
+    private final boolean enabled;
+    private final Counter publishedCounter;
+
+    public IntakeChangeProducer(
+            OutboxWriter outboxWriter,
+            IntakeReadModelService intakeReadModelService,
+            MeterRegistry meterRegistry,
+            @Value("${app.intake-changes.enabled:true}") boolean enabled) {
+        this.outboxWriter = outboxWriter;
+        this.intakeReadModelService = intakeReadModelService;
+        this.enabled = enabled;
+        this.publishedCounter = Counter.builder("intake.changes.published")
+                .description("Intake change events appended to the outbox")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void created(Long userId, String originDeviceId, Collection<IntakeSnapshot> intakes) {
+        intakes.forEach(intake -> publish(userId, originDeviceId, null, intake));
+    }
+
+    public void publish(Long userId, String originDeviceId, IntakeSnapshot before,
+                        IntakeSnapshot after) {
+        if (!enabled || (before == null && after == null)) {
+            return;
+        }
+        IntakeChangeEvent.ChangeType type = before == null ? IntakeChangeEvent.ChangeType.CREATED
+                : after == null ? IntakeChangeEvent.ChangeType.DELETED
+                : IntakeChangeEvent.ChangeType.UPDATED;
+        Long intakeId = after != null ? after.getId() : before.getId();
+        Long intakeVersion = after != null ? after.getVersion() : nextVersion(before);
+        intakeReadModelService.markPending(userId, intakeId, intakeVersion);
+        outboxWriter.append(TOPIC, String.valueOf(userId), IntakeChangeEvent.builder()
+                .schemaVersion(IntakeChangeEvent.SCHEMA_VERSION)
+                .eventId(UUID.randomUUID().toString())
+                .userId(userId)
+                .intakeId(intakeId)
+                .type(type)
+                .intakeVersion(intakeVersion)
+                .changedAt(Instant.now())
+                .originDeviceId(originDeviceId)
+                .before(before)
+                .after(after)
+                .build());
+        publishedCounter.increment();
+        log.debug("Queued intake change type={} userId={}", type, userId);
+    }
+
+    private static Long nextVersion(IntakeSnapshot before) {
+        return before.getVersion() == null ? null : before.getVersion() + 1;
+    }
+}
@@ -0,0 +1,188 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.CacheInvalidationEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.OutboxEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.OutboxEventRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes outbox rows to Kafka. Rows are claimed in a short transaction and published
+ * outside of it, so neither row locks nor a connection are held while Kafka is slow; a
+ * claim that is not finished within {@code app.outbox.claim-ttl} is picked up again.
+ * Published rows are deleted and failed ones released in a second short transaction.
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final String owner = "relay-" + UUID.randomUUID();
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final CacheInvalidationProducer cacheInvalidationProducer;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration claimTtl;
+    private final int maxFailures;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            CacheInvalidationProducer cacheInvalidationProducer,
+            ObjectMapper objectMapper,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.outbox.batch-size:500}") int batchSize,
+            @Value("${app.outbox.send-timeout:PT30S}") Duration sendTimeout,
+            @Value("${app.outbox.claim-ttl:PT1M}") Duration claimTtl,
+            @Value("${app.outbox.max-failures:10}") int maxFailures) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.cacheInvalidationProducer = cacheInvalidationProducer;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.claimTtl = claimTtl;
+        this.maxFailures = maxFailures;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:PT0.2S}")
+    public void relay() {
+        List<OutboxEvent> batch = claimNextBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Delivery> deliveries = toDeliveries(batch);
+        List<Long> published = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        long deadline = System.nanoTime() + sendTimeout.toNanos();
+        for (Delivery delivery : deliveries) {
+            try {
+                delivery.result.get(Math.max(0, deadline - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+                published.addAll(delivery.rowIds);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+                failed.addAll(delivery.rowIds);
+            } catch (Exception exception) {
+                log.warn("Failed to relay outbox event topic={} key={}, will retry",
+                        delivery.topic, delivery.key, exception);
+                failed.addAll(delivery.rowIds);
+            }
+        }
+        finish(published, failed);
+        log.debug("Relayed {} of {} outbox events in {} messages",
+                published.size(), batch.size(), deliveries.size());
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        return transactionTemplate.execute(status -> {
+            Instant now = Instant.now();
+            List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(
+                    now, maxFailures, PageRequest.of(0, batchSize));
+            if (!batch.isEmpty()) {
+                outboxEventRepository.claim(batch.stream().map(OutboxEvent::getId).toList(),
+                        owner, now.plus(claimTtl));
+            }
+            return batch;
+        });
+    }
+
+    private void finish(List<Long> published, List<Long> failed) {
+        if (published.isEmpty() && failed.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!published.isEmpty()) {
+                outboxEventRepository.deleteAllByIdInBatch(published);
+            }
+            if (!failed.isEmpty()) {
+                outboxEventRepository.release(failed);
+            }
+        });
+    }
+
+    private List<Delivery> toDeliveries(List<OutboxEvent> batch) {
+        Map<String, List<OutboxEvent>> invalidations = new LinkedHashMap<>();
+        List<Delivery> deliveries = new ArrayList<>();
+        for (OutboxEvent row : batch) {
+            if (CacheInvalidationProducer.TOPIC.equals(row.getTopic())) {
+                invalidations.computeIfAbsent(row.getMessageKey(), ignored -> new ArrayList<>())
+                        .add(row);
+                continue;
+            }
+            Object payload = readPayload(row);
+            if (payload != null) {
+                deliveries.add(send(row.getTopic(), row.getMessageKey(), payload,
+                        List.of(row.getId())));
+            }
+        }
+        invalidations.forEach((key, rows) -> {
+            Map<String, List<CacheInvalidationEvent>> byDomain = new LinkedHashMap<>();
+            Map<String, List<Long>> rowIdsByDomain = new LinkedHashMap<>();
+            for (OutboxEvent row : rows) {
+                if (readPayload(row) instanceof CacheInvalidationEvent event) {
+                    byDomain.computeIfAbsent(event.getDomain(), ignored -> new ArrayList<>())
+                            .add(event);
+                    rowIdsByDomain.computeIfAbsent(event.getDomain(),
+                            ignored -> new ArrayList<>()).add(row.getId());
+                }
+            }
+            byDomain.forEach((domain, events) -> deliveries.add(send(
+                    CacheInvalidationProducer.TOPIC, key,
+                    cacheInvalidationProducer.coalesce(events), rowIdsByDomain.get(domain))));
+        });
+        return deliveries;
+    }
+
+    private Object readPayload(OutboxEvent row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), Class.forName(row.getPayloadType()));
+        } catch (Exception exception) {
+            int failures = row.getFailures() + 1;
+            if (failures >= maxFailures) {
+                log.error("Parking unreadable outbox event id={} type={} after {} failures",
+                        row.getId(), row.getPayloadType(), failures, exception);
+            } else {
+                log.warn("Unreadable outbox event id={} type={}, will retry",
+                        row.getId(), row.getPayloadType(), exception);
+            }
+            String error = String.valueOf(exception);
+            outboxEventRepository.recordFailure(row.getId(),
+                    error.substring(0, Math.min(error.length(), 1000)));
+            return null;
+        }
+    }
+
+    private Delivery send(String topic, String key, Object payload, List<Long> rowIds) {
+        CompletableFuture<?> result;
+        try {
+            result = key == null
+                    ? kafkaTemplate.send(topic, payload)
+                    : kafkaTemplate.send(topic, key, payload);
+        } catch (RuntimeException exception) {
+            result = CompletableFuture.failedFuture(exception);
+        }
+        return new Delivery(topic, key, rowIds, result);
+    }
+
+    private record Delivery(String topic, String key, List<Long> rowIds,
+                            CompletableFuture<?> result) {
+    }
+}
@@ -0,0 +1,38 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.exception.EventProcessingException;
+import com.olehprukhnytskyi.exception.error.EventErrorCode;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.OutboxEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.OutboxEventRepository;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional
+    public void append(String topic, String key, Object payload) {
+        try {
+            outboxEventRepository.save(OutboxEvent.builder()
+                    .topic(topic)
+                    .messageKey(key)
+                    .payloadType(payload.getClass().getName())
+                    .payload(objectMapper.writeValueAsString(payload))
+                    .createdAt(Instant.now())
+                    .build());
+            log.debug("Queued outbox event topic={} key={}", topic, key);
+        } catch (JsonProcessingException e) {
+            throw new EventProcessingException(EventErrorCode.KAFKA_SEND_FAILED,
+                    "Cannot serialize outbox event", e);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.projection;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.model.NutrientAware;
+import com.olehprukhnytskyi.util.IntakePeriod;
+import com.olehprukhnytskyi.util.UnitType;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record IntakeProjection(
+        Long id,
+        Long userId,
+        UUID requestId,
+        String mealGroupId,
+        String mealTemplateName,
+        Integer mealItemPosition,
+        String foodId,
+        String foodName,
+        String brand,
+        Integer amount,
+        UnitType unitType,
+        LocalDate date,
+        IntakePeriod intakePeriod,
+        IntakeStatus status,
+        BigDecimal calories,
+        BigDecimal carbohydrates,
+        BigDecimal fat,
+        BigDecimal protein,
+        BigDecimal caloriesPer100,
+        BigDecimal carbohydratesPer100,
+        BigDecimal fatPer100,
+        BigDecimal proteinPer100,
+        BigDecimal caloriesPerPiece,
+        BigDecimal carbohydratesPerPiece,
+        BigDecimal fatPerPiece,
+        BigDecimal proteinPerPiece,
+        String originalFoodId,
+        String moderationStatus,
+        boolean verifiedByAdmin,
+        Instant updatedAt,
+        boolean deleted,
+        Long version
+) implements NutrientAware {
+    public static final String SELECT = """
+            select new com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection(
+                i.id, i.userId, i.requestId, i.mealGroupId, i.mealTemplateName, i.mealItemPosition,
+                i.foodId, i.foodName, i.brand, i.amount, i.unitType, i.date, i.intakePeriod,
+                i.status, i.nutriments.calories, i.nutriments.carbohydrates,
+                i.nutriments.fat, i.nutriments.protein, i.nutriments.caloriesPer100,
+                i.nutriments.carbohydratesPer100, i.nutriments.fatPer100,
+                i.nutriments.proteinPer100, i.nutriments.caloriesPerPiece,
+                i.nutriments.carbohydratesPerPiece, i.nutriments.fatPerPiece,
+                i.nutriments.proteinPerPiece, i.originalFoodId, i.moderationStatus,
+                i.verifiedByAdmin, i.updatedAt, i.deleted, i.version)
+            from Intake i
+            """;
+
+    @Override
+    public boolean isGramsDataComplete() {
+        return caloriesPer100 != null && proteinPer100 != null
+               && fatPer100 != null && carbohydratesPer100 != null;
+    }
+
+    @Override
+    public boolean isPiecesDataComplete() {
+        return caloriesPerPiece != null && proteinPerPiece != null
+               && fatPerPiece != null && carbohydratesPerPiece != null;
+    }
+}
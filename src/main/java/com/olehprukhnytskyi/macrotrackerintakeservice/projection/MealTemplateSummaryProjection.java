@@ -0,0 +1,24 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.projection;
+
+import com.olehprukhnytskyi.util.UnitType;
+import java.math.BigDecimal;
+
+public interface MealTemplateSummaryProjection {
+    Long getId();
+
+    String getName();
+
+    boolean isRecipe();
+
+    Integer getTotalYieldAmount();
+
+    UnitType getYieldUnitType();
+
+    BigDecimal getTotalCalories();
+
+    BigDecimal getTotalCarbohydrates();
+
+    BigDecimal getTotalFat();
+
+    BigDecimal getTotalProtein();
+}
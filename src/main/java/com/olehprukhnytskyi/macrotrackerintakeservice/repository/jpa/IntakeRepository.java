@@ -3,15 +3,21 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.projection.DailyIntakeSummaryProjection;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
+import jakarta.persistence.QueryHint;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
@@ -46,30 +52,54 @@ public interface IntakeRepository extends JpaRepository<Intake, Long> {
             @Param("date") LocalDate date
     );
 
-    @Query("""
-            select i from Intake i
+    @Query(IntakeProjection.SELECT + """
+            where i.userId = :userId
+              and i.date = :date
+              and i.deleted = false
+            order by i.id asc
+            """)
+    List<IntakeProjection> findProjectionsByUserIdAndDate(
+            @Param("userId") Long userId,
+            @Param("date") LocalDate date
+    );
+
+    @Query(IntakeProjection.SELECT + """
+            where i.userId = :userId
+              and i.deleted = false
+            """)
+    List<IntakeProjection> findProjectionsByUserId(@Param("userId") Long userId);
+
+    @Query(IntakeProjection.SELECT + """
             where i.userId = :userId
               and i.date between :startDate and :endDate
               and i.deleted = false
             order by i.date asc, i.intakePeriod asc, i.id asc
             """)
-    List<Intake> findByUserIdAndDateBetweenOrderByDateAscIntakePeriodAscIdAsc(
+    List<IntakeProjection> findProjectionsByUserIdAndDateBetween(
             @Param("userId") Long userId,
             @Param("startDate") LocalDate startDate,
             @Param("endDate") LocalDate endDate
     );
 
-    @Query("select i from Intake i where i.userId = :userId and i.deleted = false")
-    List<Intake> findByUserId(@Param("userId") Long userId);
-
-    @Query("select i from Intake i where i.userId = :userId and i.date = :date "
-            + "and i.status = :status and i.deleted = false")
-    List<Intake> findByUserIdAndDateAndStatus(
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query(IntakeProjection.SELECT + """
+            where i.userId = :userId
+              and i.date between :startDate and :endDate
+              and i.deleted = false
+            order by i.date asc, i.intakePeriod asc, i.id asc
+            """)
+    Stream<IntakeProjection> streamByUserIdAndDateBetween(
             @Param("userId") Long userId,
-            @Param("date") LocalDate date,
-            @Param("status") IntakeStatus status
+            @Param("startDate") LocalDate startDate,
+            @Param("endDate") LocalDate endDate
     );
 
+    @Query("select i from Intake i where i.userId = :userId and i.deleted = false")
+    List<Intake> findByUserId(@Param("userId") Long userId);
+
     @Query("select i from Intake i where i.userId = :userId "
             + "and i.date between :from and :to and i.status = :status "
             + "and i.deleted = false order by i.date, i.id")
@@ -112,19 +142,29 @@ public interface IntakeRepository extends JpaRepository<Intake, Long> {
             @Param("userId") Long userId
     );
 
+    @Query(IntakeProjection.SELECT + """
+            where i.mealGroupId in :mealGroupIds
+              and i.userId = :userId
+              and i.deleted = false
+            order by i.mealGroupId asc, i.mealItemPosition asc
+            """)
+    List<IntakeProjection> findProjectionsByMealGroupIdInAndUserId(
+            @Param("mealGroupIds") Collection<String> mealGroupIds,
+            @Param("userId") Long userId
+    );
+
     @Query("select i from Intake i where i.id = :id and i.userId = :userId")
     Optional<Intake> findAnyByIdAndUserId(
             @Param("id") Long id,
             @Param("userId") Long userId
     );
 
-    @Query("""
-            select i from Intake i
+    @Query(IntakeProjection.SELECT + """
             where i.userId = :userId
               and i.updatedAt > :updatedAt
             order by i.updatedAt asc, i.id asc
             """)
-    List<Intake> findAllChangedAfter(
+    List<IntakeProjection> findAllChangedAfter(
             @Param("userId") Long userId,
             @Param("updatedAt") Instant updatedAt,
             Pageable pageable
@@ -161,6 +201,55 @@ public interface IntakeRepository extends JpaRepository<Intake, Long> {
             @Param("updatedAt") Instant updatedAt
     );
 
+    @Modifying
+    @Query("""
+            update Intake i
+            set i.status =
+                    com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus.CONSUMED,
+                i.updatedAt = :updatedAt,
+                i.version = i.version + 1
+            where i.userId in :userIds
+              and i.date = :date
+              and i.status =
+                  com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus.PLANNED
+              and i.deleted = false
+            """)
+    int consumePlannedByUserIdInAndDate(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("date") LocalDate date,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    @Query(IntakeProjection.SELECT + """
+            where i.userId in :userIds
+              and i.date = :date
+              and i.updatedAt = :updatedAt
+              and i.status =
+                  com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus.CONSUMED
+              and i.deleted = false
+            order by i.userId asc, i.id asc
+            """)
+    List<IntakeProjection> findProjectionsConsumedAt(
+            @Param("userIds") Collection<Long> userIds,
+            @Param("date") LocalDate date,
+            @Param("updatedAt") Instant updatedAt
+    );
+
+    @Query("""
+            select distinct i.userId from Intake i
+            where i.date = :date
+              and i.status =
+                  com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus.PLANNED
+              and i.deleted = false
+              and i.userId > :afterUserId
+            order by i.userId asc
+            """)
+    List<Long> findUserIdsWithPlannedAfter(
+            @Param("date") LocalDate date,
+            @Param("afterUserId") Long afterUserId,
+            Pageable pageable
+    );
+
     Optional<Intake> findFirstByMealGroupIdAndUserIdAndDeletedFalse(
             String mealGroupId,
             Long userId
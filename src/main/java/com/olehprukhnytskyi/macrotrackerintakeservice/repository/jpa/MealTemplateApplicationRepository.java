@@ -1,17 +1,41 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateApplication;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface MealTemplateApplicationRepository
         extends JpaRepository<MealTemplateApplication, Long> {
     Optional<MealTemplateApplication> findByUserIdAndRequestId(Long userId, UUID requestId);
 
+    List<MealTemplateApplication> findAllByUserIdAndRequestIdIn(Long userId,
+                                                                Collection<UUID> requestIds);
+
     Optional<MealTemplateApplication> findByUserIdAndMealGroupId(Long userId, UUID mealGroupId);
 
     void deleteByUserIdAndMealGroupId(Long userId, UUID mealGroupId);
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM meal_template_application
+            WHERE id IN (
+                SELECT id FROM meal_template_application
+                WHERE user_id = :userId
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteBatchByUserId(
+            @Param("userId") Long userId,
+            @Param("batchSize") int batchSize
+    );
 }
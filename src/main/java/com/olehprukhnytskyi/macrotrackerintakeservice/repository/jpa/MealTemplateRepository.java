@@ -1,17 +1,94 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.MealTemplateSummaryProjection;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface MealTemplateRepository extends JpaRepository<MealTemplate, Long> {
+    @EntityGraph(attributePaths = "items")
     Optional<MealTemplate> findByIdAndUserId(Long id, Long userId);
 
     Optional<MealTemplate> findByUserIdAndRequestId(Long userId, UUID requestId);
 
+    @EntityGraph(attributePaths = "items")
     List<MealTemplate> findAllByUserId(Long userId);
+
+    @Query("""
+            select t.id as id, t.name as name, t.recipe as recipe,
+                   t.totalYieldAmount as totalYieldAmount, t.yieldUnitType as yieldUnitType,
+                   t.totalCalories as totalCalories,
+                   t.totalCarbohydrates as totalCarbohydrates,
+                   t.totalFat as totalFat, t.totalProtein as totalProtein
+            from MealTemplate t
+            where t.userId = :userId
+            order by t.id asc
+            """)
+    List<MealTemplateSummaryProjection> findSummariesByUserId(@Param("userId") Long userId);
+
+    @EntityGraph(attributePaths = "items")
+    List<MealTemplate> findAllByUserIdAndIdIn(Long userId, Collection<Long> ids);
+
+    @Query(value = """
+            select t.id from MealTemplate t
+            where t.userId = :userId
+              and (:recipeOnly = false or t.recipe = true)
+              and lower(t.name) like :namePattern escape '\\'
+            order by lower(t.name) asc, t.id asc
+            """,
+            countQuery = """
+            select count(t) from MealTemplate t
+            where t.userId = :userId
+              and (:recipeOnly = false or t.recipe = true)
+              and lower(t.name) like :namePattern escape '\\'
+            """)
+    Page<Long> findIdsByUserIdAndFilter(
+            @Param("userId") Long userId,
+            @Param("recipeOnly") boolean recipeOnly,
+            @Param("namePattern") String namePattern,
+            Pageable pageable
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM meal_template_item
+            WHERE id IN (
+                SELECT i.id FROM meal_template_item i
+                JOIN meal_template t ON t.id = i.template_id
+                WHERE t.user_id = :userId
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteItemBatchByUserId(
+            @Param("userId") Long userId,
+            @Param("batchSize") int batchSize
+    );
+
+    @Transactional
+    @Modifying
+    @Query(value = """
+            DELETE FROM meal_template
+            WHERE id IN (
+                SELECT id FROM meal_template
+                WHERE user_id = :userId
+                LIMIT :batchSize
+            )
+            """, nativeQuery = true)
+    int deleteBatchByUserId(
+            @Param("userId") Long userId,
+            @Param("batchSize") int batchSize
+    );
 }
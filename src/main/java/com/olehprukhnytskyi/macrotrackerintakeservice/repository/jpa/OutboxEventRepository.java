@@ -0,0 +1,66 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+            select e from OutboxEvent e
+            where (e.claimedUntil is null or e.claimedUntil < :now)
+              and e.failures < :maxFailures
+            order by e.id asc
+            """)
+    List<OutboxEvent> lockNextBatch(
+            @Param("now") Instant now,
+            @Param("maxFailures") int maxFailures,
+            Pageable pageable
+    );
+
+    @Modifying
+    @Query("""
+            update OutboxEvent e
+            set e.claimedBy = :owner,
+                e.claimedUntil = :claimedUntil
+            where e.id in :ids
+            """)
+    int claim(
+            @Param("ids") Collection<Long> ids,
+            @Param("owner") String owner,
+            @Param("claimedUntil") Instant claimedUntil
+    );
+
+    @Modifying
+    @Query("""
+            update OutboxEvent e
+            set e.claimedBy = null,
+                e.claimedUntil = null
+            where e.id in :ids
+            """)
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update OutboxEvent e
+            set e.failures = e.failures + 1,
+                e.lastError = :error
+            where e.id = :id
+            """)
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+}
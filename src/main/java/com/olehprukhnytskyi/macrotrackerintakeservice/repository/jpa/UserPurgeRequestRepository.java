@@ -0,0 +1,38 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.UserPurgeRequest;
+import java.util.Collection;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface UserPurgeRequestRepository extends JpaRepository<UserPurgeRequest, Long> {
+    @Query("select r.userId from UserPurgeRequest r where r.userId in :userIds")
+    List<Long> findExistingUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Query("""
+            select r.userId from UserPurgeRequest r
+            order by r.requestedAt asc, r.userId asc
+            """)
+    List<Long> findNextUserIds(Pageable pageable);
+
+    @Transactional
+    @Modifying
+    @Query("update UserPurgeRequest r set r.stage = :stage where r.userId = :userId")
+    int updateStage(@Param("userId") Long userId, @Param("stage") String stage);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update UserPurgeRequest r
+            set r.deleted = r.deleted + :deleted
+            where r.userId = :userId
+            """)
+    int addDeleted(@Param("userId") Long userId, @Param("deleted") long deleted);
+}
@@ -0,0 +1,310 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.repository.redis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.DailyIntakeSummaryDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Per-user intake read model in Redis: days, day totals, dated index, applied intake
+ * versions, pending changes and meta, all under the user's hash tag. Every write is one
+ * script that checks the model version it was computed from, so concurrent writers never
+ * interleave.
+ */
+@Repository
+public class IntakeReadModelRepository {
+    private static final String KEY_PREFIX = "intake-read:";
+    private static final TypeReference<List<IntakeResponseDto>> INTAKES = new TypeReference<>() {
+    };
+    private static final TypeReference<DailyIntakeSummaryDto> TOTALS = new TypeReference<>() {
+    };
+    private static final RedisScript<Long> WRITE_SCRIPT = new DefaultRedisScript<>("""
+            local current = redis.call('hget', KEYS[5], 'version')
+            if ARGV[1] == 'replace' then
+                if (current or '') ~= ARGV[2] then
+                    return -2
+                end
+                redis.call('del', KEYS[1], KEYS[2], KEYS[3], KEYS[4])
+                redis.call('hdel', KEYS[5], 'source')
+                redis.call('hset', KEYS[5], 'epoch', ARGV[3])
+            elseif not current then
+                return -1
+            elseif current ~= ARGV[2] then
+                return -2
+            end
+            local i = 7
+            for day = 1, tonumber(ARGV[6]) do
+                local date = ARGV[i]
+                if ARGV[i + 2] == '' then
+                    redis.call('hdel', KEYS[1], date)
+                    redis.call('zrem', KEYS[3], date)
+                else
+                    redis.call('hset', KEYS[1], date, ARGV[i + 2])
+                    redis.call('zadd', KEYS[3], ARGV[i + 1], date)
+                end
+                if ARGV[i + 3] == '' then
+                    redis.call('hdel', KEYS[2], date)
+                else
+                    redis.call('hset', KEYS[2], date, ARGV[i + 3])
+                end
+                i = i + 4
+            end
+            local applied = tonumber(ARGV[i])
+            i = i + 1
+            for intake = 1, applied do
+                redis.call('hset', KEYS[4], ARGV[i], ARGV[i + 1] .. '|' .. ARGV[i + 2])
+                local pending = redis.call('hget', KEYS[6], ARGV[i])
+                if pending and tonumber(pending) <= tonumber(ARGV[i + 1]) then
+                    redis.call('hdel', KEYS[6], ARGV[i])
+                end
+                i = i + 3
+            end
+            local version = redis.call('hincrby', KEYS[5], 'version', 1)
+            if version == 1 then
+                version = tonumber(ARGV[4])
+                redis.call('hset', KEYS[5], 'version', version)
+            end
+            for k = 1, 5 do
+                redis.call('pexpire', KEYS[k], ARGV[5])
+            end
+            return version
+            """, Long.class);
+    private static final RedisScript<Long> PENDING_SCRIPT = new DefaultRedisScript<>("""
+            local pending = redis.call('hget', KEYS[1], ARGV[1])
+            if not pending or tonumber(pending) < tonumber(ARGV[2]) then
+                redis.call('hset', KEYS[1], ARGV[1], ARGV[2])
+            end
+            redis.call('pexpire', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> META_SCRIPT = new DefaultRedisScript<>("""
+            local meta = redis.call('hmget', KEYS[1], 'version', 'epoch')
+            if not meta[1] then
+                return {}
+            end
+            return {meta[1], meta[2] or '', tostring(redis.call('hlen', KEYS[2]))}
+            """, List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> RANGE_SCRIPT = new DefaultRedisScript<>("""
+            local dates = redis.call('zrangebyscore', KEYS[1], ARGV[1], ARGV[2])
+            if #dates == 0 then
+                return {}
+            end
+            return redis.call('hmget', KEYS[2], unpack(dates))
+            """, List.class);
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration pendingTtl;
+
+    public IntakeReadModelRepository(
+            StringRedisTemplate redisTemplate,
+            ObjectMapper objectMapper,
+            @Value("${app.read-model.ttl:P90D}") Duration ttl,
+            @Value("${app.read-model.pending-ttl:PT6H}") Duration pendingTtl) {
+        this.redisTemplate = redisTemplate;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.pendingTtl = pendingTtl;
+    }
+
+    public Meta findMeta(Long userId) {
+        List<?> values = redisTemplate.execute(META_SCRIPT,
+                List.of(metaKey(userId), pendingKey(userId)));
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        String epoch = (String) values.get(1);
+        return new Meta(Long.parseLong((String) values.getFirst()),
+                epoch.isEmpty() ? null : Long.valueOf(epoch),
+                Long.parseLong((String) values.get(2)));
+    }
+
+    public List<IntakeResponseDto> findDay(Long userId, LocalDate date) {
+        Object day = hash().get(daysKey(userId), date.toString());
+        return day == null ? List.of() : read((String) day, INTAKES);
+    }
+
+    public Map<LocalDate, List<IntakeResponseDto>> findDays(Long userId,
+                                                            Collection<LocalDate> dates) {
+        List<LocalDate> keys = List.copyOf(dates);
+        List<Object> values = hash().multiGet(daysKey(userId),
+                keys.stream().map(date -> (Object) date.toString()).toList());
+        Map<LocalDate, List<IntakeResponseDto>> days = new TreeMap<>();
+        for (int i = 0; i < keys.size(); i++) {
+            Object day = values.get(i);
+            days.put(keys.get(i), day == null
+                    ? new ArrayList<>() : new ArrayList<>(read((String) day, INTAKES)));
+        }
+        return days;
+    }
+
+    public Map<Long, IntakeEntry> findIntakes(Long userId, Collection<Long> intakeIds) {
+        List<Long> ids = List.copyOf(intakeIds);
+        List<Object> values = hash().multiGet(intakesKey(userId),
+                ids.stream().map(id -> (Object) id.toString()).toList());
+        Map<Long, IntakeEntry> intakes = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (values.get(i) instanceof String value) {
+                int separator = value.indexOf('|');
+                String date = value.substring(separator + 1);
+                intakes.put(ids.get(i), new IntakeEntry(ids.get(i),
+                        Long.parseLong(value.substring(0, separator)),
+                        date.isEmpty() ? null : LocalDate.parse(date)));
+            }
+        }
+        return intakes;
+    }
+
+    public void markPending(Long userId, Long intakeId, long version) {
+        redisTemplate.execute(PENDING_SCRIPT, List.of(pendingKey(userId)),
+                intakeId.toString(), String.valueOf(version),
+                String.valueOf(pendingTtl.toMillis()));
+    }
+
+    public List<IntakeResponseDto> findRange(Long userId, LocalDate from, LocalDate to) {
+        List<IntakeResponseDto> intakes = new ArrayList<>();
+        range(daysKey(userId), userId, from, to)
+                .forEach(day -> intakes.addAll(read(day, INTAKES)));
+        return intakes;
+    }
+
+    public List<DailyIntakeSummaryDto> findTotals(Long userId, LocalDate from, LocalDate to) {
+        return range(totalsKey(userId), userId, from, to).stream()
+                .map(totals -> read(totals, TOTALS))
+                .toList();
+    }
+
+    public Map<LocalDate, List<IntakeResponseDto>> findAll(Long userId) {
+        Map<LocalDate, List<IntakeResponseDto>> days = new TreeMap<>();
+        hash().entries(daysKey(userId)).forEach((date, day) ->
+                days.put(LocalDate.parse((String) date), read((String) day, INTAKES)));
+        return days;
+    }
+
+    public long merge(Long userId, long expectedVersion, Collection<Day> days,
+                      Collection<IntakeEntry> intakes) {
+        return write("merge", userId, expectedVersion, null, days, intakes);
+    }
+
+    public long replace(Long userId, Long expectedVersion, long epoch, Collection<Day> days,
+                        Collection<IntakeEntry> intakes) {
+        return write("replace", userId, expectedVersion, epoch, days, intakes);
+    }
+
+    public void delete(Long userId) {
+        redisTemplate.delete(List.of(daysKey(userId), totalsKey(userId), datesKey(userId),
+                intakesKey(userId), metaKey(userId), pendingKey(userId)));
+    }
+
+    private long write(String mode, Long userId, Long expectedVersion, Long epoch,
+                       Collection<Day> days, Collection<IntakeEntry> intakes) {
+        List<String> args = new ArrayList<>(7 + days.size() * 4 + intakes.size() * 3);
+        args.add(mode);
+        args.add(expectedVersion == null ? "" : expectedVersion.toString());
+        args.add(epoch == null ? "" : epoch.toString());
+        args.add(String.valueOf(System.currentTimeMillis()));
+        args.add(String.valueOf(ttl.toMillis()));
+        args.add(String.valueOf(days.size()));
+        for (Day day : days) {
+            args.add(day.date().toString());
+            args.add(String.valueOf(day.date().toEpochDay()));
+            args.add(day.intakes().isEmpty() ? "" : toJson(day.intakes()));
+            args.add(day.totals() == null ? "" : toJson(day.totals()));
+        }
+        args.add(String.valueOf(intakes.size()));
+        for (IntakeEntry intake : intakes) {
+            args.add(intake.id().toString());
+            args.add(String.valueOf(intake.version()));
+            args.add(intake.date() == null ? "" : intake.date().toString());
+        }
+        Long version = redisTemplate.execute(WRITE_SCRIPT, List.of(daysKey(userId),
+                totalsKey(userId), datesKey(userId), intakesKey(userId), metaKey(userId),
+                pendingKey(userId)), args.toArray());
+        return version == null ? -1 : version;
+    }
+
+    private List<String> range(String hashKey, Long userId, LocalDate from, LocalDate to) {
+        List<?> values = redisTemplate.execute(RANGE_SCRIPT, List.of(datesKey(userId), hashKey),
+                String.valueOf(from.toEpochDay()), String.valueOf(to.toEpochDay()));
+        if (values == null) {
+            return List.of();
+        }
+        return values.stream()
+                .filter(Objects::nonNull)
+                .map(String.class::cast)
+                .toList();
+    }
+
+    private HashOperations<String, Object, Object> hash() {
+        return redisTemplate.opsForHash();
+    }
+
+    private <T> T read(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot read intake read model", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot write intake read model", e);
+        }
+    }
+
+    private static String daysKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":days";
+    }
+
+    private static String totalsKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":totals";
+    }
+
+    private static String datesKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":dates";
+    }
+
+    private static String intakesKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":intakes";
+    }
+
+    private static String metaKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":meta";
+    }
+
+    private static String pendingKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":pending";
+    }
+
+    public record Meta(long version, Long epoch, long pending) {
+    }
+
+    public record IntakeEntry(Long id, long version, LocalDate date) {
+    }
+
+    public record Day(LocalDate date, List<IntakeResponseDto> intakes,
+                      DailyIntakeSummaryDto totals) {
+    }
+}
@@ -0,0 +1,56 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Runs the remote lookups of a single request concurrently on virtual threads. Each fork
+ * sees the caller's request attributes, so Feign interceptors forward the caller's headers.
+ * Closing the scope interrupts forks that are still running and waits for them to finish,
+ * so no lookup outlives the request that started it.
+ */
+final class ConcurrentLookups implements AutoCloseable {
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("intake-lookup-", 0).factory());
+    private final RequestAttributes requestAttributes =
+            RequestContextHolder.getRequestAttributes();
+
+    <T> Future<T> fork(Callable<T> lookup) {
+        return executor.submit(() -> {
+            RequestContextHolder.setRequestAttributes(requestAttributes);
+            try {
+                return lookup.call();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        });
+    }
+
+    static <T> T join(Future<T> fork) {
+        try {
+            return fork.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a lookup", ex);
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        executor.close();
+    }
+}
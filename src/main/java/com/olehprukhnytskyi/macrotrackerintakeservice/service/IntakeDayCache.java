@@ -0,0 +1,152 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CachedDayResponseSerializer;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rendered intake day lists in the {@link CacheConstants#USER_INTAKES} cache. Write paths
+ * patch the lists of the days they touched once the day version has been bumped: the
+ * patched entry is stored only if the cached one is exactly one version behind, any other
+ * entry is evicted.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IntakeDayCache {
+    private static final TypeReference<List<IntakeResponseDto>> INTAKES = new TypeReference<>() {
+    };
+    private static final byte[] REPLACE_SCRIPT = ("""
+            local current = redis.call('get', KEYS[1])
+            if not current then
+                return 0
+            end
+            local version = string.sub(current, %d, %d)
+            if version == ARGV[1] then
+                redis.call('set', KEYS[1], ARGV[3], 'keepttl')
+                return 1
+            end
+            if version ~= ARGV[2] then
+                redis.call('del', KEYS[1])
+            end
+            return 0
+            """).formatted(CachedDayResponseSerializer.VERSION_OFFSET + 1,
+                    CachedDayResponseSerializer.VERSION_OFFSET + Long.BYTES)
+            .getBytes(StandardCharsets.UTF_8);
+    private final CachedDayResponseSerializer serializer = new CachedDayResponseSerializer();
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CachedDayResponse get(Long userId, LocalDate date) {
+        Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
+        return cache == null ? null : cache.get(key(userId, date), CachedDayResponse.class);
+    }
+
+    public void put(Long userId, LocalDate date, CachedDayResponse day) {
+        Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
+        if (cache != null) {
+            cache.put(key(userId, date), day);
+        }
+    }
+
+    public CachedDayResponse render(List<IntakeResponseDto> intakes, long epoch, long version) {
+        List<IntakeResponseDto> legacy = intakes.stream()
+                .filter(intake -> intake.getStatus() != IntakeStatus.PLANNED)
+                .toList();
+        byte[] body = write(intakes);
+        if (legacy.size() == intakes.size()) {
+            return new CachedDayResponse(epoch, version, body, body);
+        }
+        return new CachedDayResponse(epoch, version, body, write(legacy));
+    }
+
+    public void apply(Long userId, Map<LocalDate, Long> versions, IntakeDayDelta delta) {
+        Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
+        if (cache == null) {
+            return;
+        }
+        versions.forEach((date, version) -> {
+            String key = key(userId, date);
+            try {
+                if (!patch(cache, key, date, version, delta)) {
+                    cache.evict(key);
+                }
+            } catch (RuntimeException exception) {
+                log.warn("Failed to patch cached intake day key={}", key, exception);
+                evictQuietly(cache, key);
+            }
+        });
+    }
+
+    private boolean patch(Cache cache, String key, LocalDate date, long version,
+                          IntakeDayDelta delta) {
+        CachedDayResponse cached = cache.get(key, CachedDayResponse.class);
+        if (cached == null || cached.getVersion() == version) {
+            return true;
+        }
+        if (cached.getVersion() != version - 1 || !(cache instanceof RedisCache redisCache)) {
+            return false;
+        }
+        CachedDayResponse patched = render(delta.applyTo(date, read(cached)),
+                cached.getEpoch(), version);
+        byte[] rawKey = (redisCache.getCacheConfiguration().getKeyPrefixFor(cache.getName())
+                + key).getBytes(StandardCharsets.UTF_8);
+        Long replaced = redisTemplate.execute((RedisCallback<Long>) connection ->
+                connection.scriptingCommands().eval(REPLACE_SCRIPT, ReturnType.INTEGER, 1,
+                        rawKey,
+                        CachedDayResponseSerializer.encodeVersion(version - 1),
+                        CachedDayResponseSerializer.encodeVersion(version),
+                        serializer.serialize(patched)));
+        log.debug("Patched cached intake day key={} version={} replaced={}",
+                key, version, replaced);
+        return true;
+    }
+
+    private List<IntakeResponseDto> read(CachedDayResponse day) {
+        try {
+            return objectMapper.readValue(day.getBody(), INTAKES);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read cached intake day response", e);
+        }
+    }
+
+    private byte[] write(List<IntakeResponseDto> intakes) {
+        try {
+            return objectMapper.writeValueAsBytes(intakes);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot render intake day response", e);
+        }
+    }
+
+    private void evictQuietly(Cache cache, String key) {
+        try {
+            cache.evict(key);
+        } catch (RuntimeException exception) {
+            log.error("Failed to evict cached intake day key={}", key, exception);
+        }
+    }
+
+    private String key(Long userId, LocalDate date) {
+        return CacheKeys.userDay(userId, date);
+    }
+}
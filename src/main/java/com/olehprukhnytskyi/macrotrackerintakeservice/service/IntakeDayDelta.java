@@ -0,0 +1,88 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Intake rows changed by one write, grouped by day so the cached day lists can be patched
+ * after commit instead of being rebuilt from the database.
+ */
+public class IntakeDayDelta {
+    private final Map<LocalDate, Map<Long, IntakeResponseDto>> upserts = new LinkedHashMap<>();
+    private final Map<LocalDate, Set<Long>> removals = new LinkedHashMap<>();
+
+    public static IntakeDayDelta of(Collection<IntakeResponseDto> intakes) {
+        IntakeDayDelta delta = new IntakeDayDelta();
+        intakes.forEach(delta::upsert);
+        return delta;
+    }
+
+    public static IntakeDayDelta removed(Long id, LocalDate date) {
+        return new IntakeDayDelta().remove(id, date);
+    }
+
+    public IntakeDayDelta upsert(IntakeResponseDto intake) {
+        if (intake.isDeleted()) {
+            return remove(intake.getId(), intake.getDate());
+        }
+        upserts.computeIfAbsent(intake.getDate(), date -> new LinkedHashMap<>())
+                .put(intake.getId(), intake);
+        return this;
+    }
+
+    public IntakeDayDelta remove(Long id, LocalDate date) {
+        removals.computeIfAbsent(date, key -> new HashSet<>()).add(id);
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return upserts.isEmpty() && removals.isEmpty();
+    }
+
+    public Set<LocalDate> dates() {
+        Set<LocalDate> dates = new LinkedHashSet<>(removals.keySet());
+        dates.addAll(upserts.keySet());
+        return dates;
+    }
+
+    public List<Long> intakeIds() {
+        Set<Long> ids = new LinkedHashSet<>();
+        removals.values().forEach(ids::addAll);
+        upserts.values().forEach(intakes -> ids.addAll(intakes.keySet()));
+        return List.copyOf(ids);
+    }
+
+    public List<IntakeResponseDto> applyTo(LocalDate date, List<IntakeResponseDto> intakes) {
+        Set<Long> removed = removals.getOrDefault(date, Set.of());
+        TreeMap<Long, IntakeResponseDto> pending =
+                new TreeMap<>(upserts.getOrDefault(date, Map.of()));
+        List<IntakeResponseDto> result = new ArrayList<>(intakes.size() + pending.size());
+        for (IntakeResponseDto intake : intakes) {
+            while (!pending.isEmpty() && pending.firstKey() < intake.getId()) {
+                result.add(pending.pollFirstEntry().getValue());
+            }
+            IntakeResponseDto update = pending.remove(intake.getId());
+            if (update != null) {
+                result.add(isOlder(update, intake) ? intake : update);
+            } else if (!removed.contains(intake.getId())) {
+                result.add(intake);
+            }
+        }
+        result.addAll(pending.values());
+        return result;
+    }
+
+    private boolean isOlder(IntakeResponseDto update, IntakeResponseDto cached) {
+        return update.getVersion() != null && cached.getVersion() != null
+                && update.getVersion() < cached.getVersion();
+    }
+}
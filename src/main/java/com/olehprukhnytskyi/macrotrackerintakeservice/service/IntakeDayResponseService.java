@@ -0,0 +1,34 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import java.time.LocalDate;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IntakeDayResponseService {
+    private final IntakeService intakeService;
+    private final IntakeDayCache intakeDayCache;
+
+    public CachedDayResponse findByDate(LocalDate date, Long userId,
+                                        ResponseVersionService.Version version) {
+        if (version != null) {
+            CachedDayResponse cached = intakeDayCache.get(userId, date);
+            if (cached != null && cached.getEpoch() == version.epoch()
+                    && cached.getVersion() == version.counter()) {
+                return cached;
+            }
+        }
+        CachedDayResponse day = intakeDayCache.render(intakeService.findByDate(date, userId),
+                version == null ? 0 : version.epoch(), version == null ? 0 : version.counter());
+        log.debug("Rendered intake day userId={} date={} bytes={} legacyShared={}",
+                userId, date, day.getBody().length, day.isLegacyShared());
+        if (version != null) {
+            intakeDayCache.put(userId, date, day);
+        }
+        return day;
+    }
+}
@@ -0,0 +1,171 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ExportJobResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJob;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJobStatus;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+@Slf4j
+@Service
+public class IntakeExportJobService {
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+    private final IntakeExportService exportService;
+    private final Path exportDirectory;
+    private final Duration retention;
+    private final ThreadPoolTaskExecutor executor;
+    private final Map<UUID, ExportJob> jobs = new ConcurrentHashMap<>();
+
+    public IntakeExportJobService(
+            IntakeExportService exportService,
+            @Value("${app.export.directory:${java.io.tmpdir}/intake-exports}")
+            Path exportDirectory,
+            @Value("${app.export.max-concurrent:2}") int maxConcurrent,
+            @Value("${app.export.queue-capacity:20}") int queueCapacity,
+            @Value("${app.export.retention:PT1H}") Duration retention) {
+        this.exportService = exportService;
+        this.exportDirectory = exportDirectory;
+        this.retention = retention;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadPriority(Thread.MIN_PRIORITY);
+        executor.setThreadNamePrefix("intake-export-");
+        executor.initialize();
+    }
+
+    public ExportJobResponseDto submit(Long userId, LocalDate startDate, LocalDate endDate,
+                                       ExportFormat format) {
+        UUID jobId = UUID.randomUUID();
+        ExportJob job = ExportJob.builder()
+                .id(jobId)
+                .userId(userId)
+                .format(format)
+                .startDate(startDate)
+                .endDate(endDate)
+                .file(exportDirectory.resolve(jobId + "." + format.getFileExtension() + ".gz"))
+                .createdAt(Instant.now())
+                .status(ExportJobStatus.QUEUED)
+                .build();
+        jobs.put(jobId, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (TaskRejectedException exception) {
+            jobs.remove(jobId);
+            log.warn("Export queue is full, rejecting export for userId={}", userId);
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many exports are running; retry later");
+        }
+        log.info("Queued {} export job={} for userId={} range={}..{}",
+                format, jobId, userId, startDate, endDate);
+        return toDto(job);
+    }
+
+    public ExportJobResponseDto getJob(UUID jobId, Long userId) {
+        return toDto(findJob(jobId, userId));
+    }
+
+    public ExportJob getCompletedJob(UUID jobId, Long userId) {
+        ExportJob job = findJob(jobId, userId);
+        if (job.getStatus() != ExportJobStatus.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Export job is " + job.getStatus());
+        }
+        return job;
+    }
+
+    @Scheduled(fixedDelayString = "${app.export.cleanup-interval:PT10M}")
+    public void purgeExpiredJobs() {
+        Instant threshold = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> {
+            boolean finished = job.getStatus() == ExportJobStatus.COMPLETED
+                    || job.getStatus() == ExportJobStatus.FAILED;
+            if (!finished || job.getCompletedAt().isAfter(threshold)) {
+                return false;
+            }
+            deleteQuietly(job.getFile());
+            log.debug("Purged expired export job={}", job.getId());
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void run(ExportJob job) {
+        job.setStatus(ExportJobStatus.RUNNING);
+        try {
+            Files.createDirectories(exportDirectory);
+            try (OutputStream output = new GZIPOutputStream(new BufferedOutputStream(
+                    Files.newOutputStream(job.getFile())), GZIP_BUFFER_SIZE)) {
+                job.setRowCount(exportService.exportByDateRange(job.getStartDate(),
+                        job.getEndDate(), job.getUserId(), job.getFormat(), output));
+            }
+            job.setSizeBytes(Files.size(job.getFile()));
+            job.setCompletedAt(Instant.now());
+            job.setStatus(ExportJobStatus.COMPLETED);
+            log.info("Completed export job={} rows={} bytes={}",
+                    job.getId(), job.getRowCount(), job.getSizeBytes());
+        } catch (IOException | RuntimeException exception) {
+            log.error("Export job={} failed for userId={}", job.getId(), job.getUserId(),
+                    exception);
+            deleteQuietly(job.getFile());
+            job.setCompletedAt(Instant.now());
+            job.setStatus(ExportJobStatus.FAILED);
+        }
+    }
+
+    private ExportJob findJob(UUID jobId, Long userId) {
+        ExportJob job = jobs.get(jobId);
+        if (job == null || !job.getUserId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Export job not found or expired");
+        }
+        return job;
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException exception) {
+            log.warn("Failed to delete export file {}", file, exception);
+        }
+    }
+
+    private ExportJobResponseDto toDto(ExportJob job) {
+        return ExportJobResponseDto.builder()
+                .jobId(job.getId())
+                .status(job.getStatus())
+                .format(job.getFormat())
+                .startDate(job.getStartDate())
+                .endDate(job.getEndDate())
+                .rowCount(job.getRowCount())
+                .sizeBytes(job.getSizeBytes())
+                .createdAt(job.getCreatedAt())
+                .completedAt(job.getCompletedAt())
+                .build();
+    }
+}
@@ -0,0 +1,126 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class IntakeExportService {
+    private static final String CSV_HEADER = "id,date,intakePeriod,status,foodId,foodName,"
+            + "brand,amount,unitType,calories,protein,fat,carbohydrates,"
+            + "mealGroupId,mealTemplateName";
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+    private final IntakeRepository intakeRepository;
+    private final IntakeMapper intakeMapper;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public long exportByDateRange(LocalDate startDate, LocalDate endDate, Long userId,
+                                  ExportFormat format, OutputStream outputStream)
+            throws IOException {
+        log.info("Streaming {} export for userId={} range={}..{}",
+                format, userId, startDate, endDate);
+        try (Stream<IntakeProjection> intakes = intakeRepository.streamByUserIdAndDateBetween(
+                userId, startDate, endDate)) {
+            Iterator<IntakeResponseDto> rows = intakes.map(intakeMapper::toDto).iterator();
+            long written = format == ExportFormat.CSV
+                    ? writeCsv(rows, outputStream)
+                    : writeJson(rows, outputStream);
+            log.debug("Exported {} intake records for userId={}", written, userId);
+            return written;
+        }
+    }
+
+    private long writeJson(Iterator<IntakeResponseDto> rows, OutputStream outputStream)
+            throws IOException {
+        ObjectWriter writer = objectMapper.writer()
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (rows.hasNext()) {
+                writer.writeValue(generator, rows.next());
+                count++;
+            }
+            generator.writeEndArray();
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<IntakeResponseDto> rows, OutputStream outputStream)
+            throws IOException {
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        long count = 0;
+        while (rows.hasNext()) {
+            writeCsvRow(writer, rows.next());
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, IntakeResponseDto intake) throws IOException {
+        NutrimentsDto nutriments = intake.getNutriments() != null
+                ? intake.getNutriments() : new NutrimentsDto();
+        Object[] cells = {
+                intake.getId(), intake.getDate(), intake.getIntakePeriod(), intake.getStatus(),
+                intake.getFoodId(), intake.getFoodName(), intake.getBrand(),
+                intake.getAmount(), intake.getUnitType(),
+                nutriments.getCalories(), nutriments.getProtein(),
+                nutriments.getFat(), nutriments.getCarbohydrates(),
+                intake.getMealGroupId(), intake.getMealTemplateName()
+        };
+        for (int i = 0; i < cells.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvValue(cells[i]));
+        }
+        writer.write('\n');
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value instanceof BigDecimal decimal
+                ? decimal.stripTrailingZeros().toPlainString()
+                : value.toString();
+        if (!(value instanceof Number) && !text.isEmpty()
+                && FORMULA_PREFIXES.indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0
+                || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+}
@@ -0,0 +1,350 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.RedisCircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.DailyIntakeSummaryDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ReadModelCheckDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeChangeEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
+import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.redis.IntakeReadModelRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the intake read model from intake-changes snapshots. Each change is marked pending
+ * before its transaction commits, and reads use the model only while nothing is pending
+ * and its epoch is current; otherwise they fall back to the database.
+ */
+@Slf4j
+@Service
+public class IntakeReadModelService {
+    private static final Comparator<IntakeResponseDto> RANGE_ORDER = Comparator
+            .comparing(IntakeResponseDto::getDate)
+            .thenComparing(intake -> intake.getIntakePeriod().name())
+            .thenComparing(IntakeResponseDto::getId);
+    private static final int MAX_ATTEMPTS = 3;
+    private final IntakeReadModelRepository readModelRepository;
+    private final IntakeRepository intakeRepository;
+    private final IntakeMapper intakeMapper;
+    private final IntakeDayCache intakeDayCache;
+    private final ResponseVersionService responseVersionService;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final boolean enabled;
+    private final Counter behindCounter;
+    private final Counter mismatchCounter;
+
+    public IntakeReadModelService(
+            IntakeReadModelRepository readModelRepository,
+            IntakeRepository intakeRepository,
+            IntakeMapper intakeMapper,
+            IntakeDayCache intakeDayCache,
+            ResponseVersionService responseVersionService,
+            RedisCircuitBreaker circuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${app.read-model.enabled:false}") boolean enabled,
+            @Value("${app.intake-changes.enabled:true}") boolean intakeChangesEnabled) {
+        this.readModelRepository = readModelRepository;
+        this.intakeRepository = intakeRepository;
+        this.intakeMapper = intakeMapper;
+        this.intakeDayCache = intakeDayCache;
+        this.responseVersionService = responseVersionService;
+        this.circuitBreaker = circuitBreaker;
+        this.enabled = enabled && intakeChangesEnabled;
+        this.behindCounter = Counter.builder("read.model.behind")
+                .description("Reads sent to the database because the read model lagged")
+                .register(meterRegistry);
+        this.mismatchCounter = Counter.builder("read.model.check.mismatches")
+                .description("Days found to differ from the database by consistency checks")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Long servingVersion(Long userId) {
+        if (!enabled) {
+            return null;
+        }
+        IntakeReadModelRepository.Meta meta = circuitBreaker.execute(
+                () -> readModelRepository.findMeta(userId), () -> null);
+        if (meta == null) {
+            return null;
+        }
+        if (!isUpToDate(meta, currentEpoch(userId))) {
+            behindCounter.increment();
+            return null;
+        }
+        return meta.version();
+    }
+
+    public void markPending(Long userId, Long intakeId, Long version) {
+        if (!enabled || intakeId == null) {
+            return;
+        }
+        long pending = Objects.requireNonNullElse(version, 0L);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordPending(userId, intakeId, pending);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void beforeCommit(boolean readOnly) {
+                        recordPending(userId, intakeId, pending);
+                    }
+                });
+    }
+
+    public CachedDayResponse findByDate(Long userId, LocalDate date, long version) {
+        return intakeDayCache.render(readModelRepository.findDay(userId, date), 0, version);
+    }
+
+    public List<IntakeResponseDto> findByDateRange(Long userId, LocalDate from, LocalDate to) {
+        return readModelRepository.findRange(userId, from, to).stream()
+                .sorted(RANGE_ORDER)
+                .toList();
+    }
+
+    public List<DailyIntakeSummaryDto> dailySummary(Long userId, LocalDate from, LocalDate to) {
+        return readModelRepository.findTotals(userId, from, to);
+    }
+
+    public void apply(Long userId, Collection<IntakeChangeEvent> events) {
+        Map<Long, IntakeChangeEvent> latest = new LinkedHashMap<>();
+        for (IntakeChangeEvent event : events) {
+            if (event.getIntakeId() != null) {
+                latest.merge(event.getIntakeId(), event,
+                        (current, next) -> version(next) > version(current) ? next : current);
+            }
+        }
+        if (latest.isEmpty()) {
+            return;
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            IntakeReadModelRepository.Meta meta = readModelRepository.findMeta(userId);
+            if (meta == null || !Objects.equals(meta.epoch(), currentEpoch(userId))) {
+                rebuild(userId);
+                continue;
+            }
+            long version = merge(userId, meta.version(), latest.values());
+            if (version >= 0) {
+                log.debug("Applied {} intake changes to read model userId={} version={}",
+                        latest.size(), userId, version);
+                return;
+            }
+        }
+        throw new IllegalStateException("Read model of userId=" + userId
+                + " kept changing while intake changes were applied");
+    }
+
+    public long rebuild(Long userId) {
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            IntakeReadModelRepository.Meta meta = readModelRepository.findMeta(userId);
+            Long epoch = currentEpoch(userId);
+            if (epoch == null) {
+                throw new IllegalStateException("Response versions are unavailable");
+            }
+            Map<LocalDate, List<IntakeResponseDto>> intakes = loadAll(userId);
+            long version = readModelRepository.replace(userId,
+                    meta == null ? null : meta.version(), epoch,
+                    intakes.entrySet().stream()
+                            .map(entry -> day(entry.getKey(), entry.getValue()))
+                            .toList(),
+                    intakes.values().stream()
+                            .flatMap(List::stream)
+                            .map(intake -> new IntakeReadModelRepository.IntakeEntry(
+                                    intake.getId(), version(intake.getVersion()),
+                                    intake.getDate()))
+                            .toList());
+            if (version >= 0) {
+                log.info("Rebuilt read model userId={} days={} version={}", userId,
+                        intakes.size(), version);
+                return version;
+            }
+        }
+        throw new IllegalStateException("Read model of userId=" + userId
+                + " kept changing while it was rebuilt");
+    }
+
+    public ReadModelCheckDto check(Long userId) {
+        IntakeReadModelRepository.Meta meta = readModelRepository.findMeta(userId);
+        final Long epoch = currentEpoch(userId);
+        Map<LocalDate, List<IntakeResponseDto>> model = meta == null
+                ? Map.of() : readModelRepository.findAll(userId);
+        Map<LocalDate, List<IntakeResponseDto>> database = loadAll(userId);
+        TreeSet<LocalDate> dates = new TreeSet<>(model.keySet());
+        dates.addAll(database.keySet());
+        List<LocalDate> mismatched = meta == null ? List.of() : dates.stream()
+                .filter(date -> !fingerprint(model.get(date))
+                        .equals(fingerprint(database.get(date))))
+                .toList();
+        mismatchCounter.increment(mismatched.size());
+        if (!mismatched.isEmpty()) {
+            log.warn("Read model of userId={} differs from database on {} days",
+                    userId, mismatched.size());
+        }
+        return ReadModelCheckDto.builder()
+                .userId(userId)
+                .built(meta != null)
+                .version(meta == null ? null : meta.version())
+                .upToDate(meta != null && isUpToDate(meta, epoch))
+                .checkedDays(dates.size())
+                .mismatchedDates(mismatched)
+                .build();
+    }
+
+    public void delete(Long userId) {
+        readModelRepository.delete(userId);
+    }
+
+    private long merge(Long userId, long modelVersion, Collection<IntakeChangeEvent> events) {
+        Map<Long, IntakeReadModelRepository.IntakeEntry> applied = readModelRepository
+                .findIntakes(userId, events.stream().map(IntakeChangeEvent::getIntakeId).toList());
+        Set<LocalDate> dates = new TreeSet<>();
+        for (IntakeChangeEvent event : events) {
+            IntakeReadModelRepository.IntakeEntry current = applied.get(event.getIntakeId());
+            Stream.of(event.getBefore(), event.getAfter())
+                    .filter(Objects::nonNull)
+                    .map(IntakeSnapshot::getDate)
+                    .filter(Objects::nonNull)
+                    .forEach(dates::add);
+            if (current != null && current.date() != null) {
+                dates.add(current.date());
+            }
+        }
+        Map<LocalDate, List<IntakeResponseDto>> days =
+                readModelRepository.findDays(userId, dates);
+        List<IntakeReadModelRepository.IntakeEntry> entries = new ArrayList<>();
+        for (IntakeChangeEvent event : events) {
+            Long intakeId = event.getIntakeId();
+            IntakeReadModelRepository.IntakeEntry current = applied.get(intakeId);
+            if (current != null && current.version() >= version(event)) {
+                entries.add(current);
+                continue;
+            }
+            days.values().forEach(intakes ->
+                    intakes.removeIf(intake -> intakeId.equals(intake.getId())));
+            IntakeSnapshot after = event.getAfter();
+            LocalDate date = after == null ? null : after.getDate();
+            if (date != null) {
+                days.get(date).add(intakeMapper.toDto(after));
+            }
+            entries.add(new IntakeReadModelRepository.IntakeEntry(intakeId, version(event),
+                    date));
+        }
+        return readModelRepository.merge(userId, modelVersion, days.entrySet().stream()
+                .map(entry -> day(entry.getKey(), entry.getValue().stream()
+                        .sorted(Comparator.comparing(IntakeResponseDto::getId))
+                        .toList()))
+                .toList(), entries);
+    }
+
+    private void recordPending(Long userId, Long intakeId, long version) {
+        try {
+            circuitBreaker.execute(() -> {
+                readModelRepository.markPending(userId, intakeId, version);
+                return null;
+            }, () -> {
+                pendingLost(userId, intakeId, null);
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            pendingLost(userId, intakeId, exception);
+        }
+    }
+
+    private void pendingLost(Long userId, Long intakeId, Exception exception) {
+        log.warn("Failed to mark intake change pending userId={} intakeId={}, "
+                + "bumping response version epoch", userId, intakeId, exception);
+        responseVersionService.intakesChanged(userId, null);
+    }
+
+    private static boolean isUpToDate(IntakeReadModelRepository.Meta meta, Long epoch) {
+        return meta.pending() == 0 && epoch != null && epoch.equals(meta.epoch());
+    }
+
+    private Long currentEpoch(Long userId) {
+        ResponseVersionService.Version version =
+                responseVersionService.intakeDayVersion(userId, null);
+        return version == null ? null : version.epoch();
+    }
+
+    private static long version(IntakeChangeEvent event) {
+        return version(event.getIntakeVersion());
+    }
+
+    private static long version(Long version) {
+        return Objects.requireNonNullElse(version, 0L);
+    }
+
+    private Map<LocalDate, List<IntakeResponseDto>> loadAll(Long userId) {
+        Map<LocalDate, List<IntakeResponseDto>> days = new TreeMap<>();
+        intakeRepository.findProjectionsByUserId(userId).stream()
+                .map(intakeMapper::toDto)
+                .sorted(Comparator.comparing(IntakeResponseDto::getId))
+                .forEach(intake -> days.computeIfAbsent(intake.getDate(),
+                        date -> new ArrayList<>()).add(intake));
+        return days;
+    }
+
+    private static IntakeReadModelRepository.Day day(LocalDate date,
+                                                     List<IntakeResponseDto> intakes) {
+        List<NutrimentsDto> consumed = intakes.stream()
+                .filter(intake -> intake.getStatus() == IntakeStatus.CONSUMED)
+                .map(IntakeResponseDto::getNutriments)
+                .filter(Objects::nonNull)
+                .toList();
+        DailyIntakeSummaryDto totals = consumed.isEmpty() ? null : DailyIntakeSummaryDto.builder()
+                .date(date)
+                .calories(sum(consumed, NutrimentsDto::getCalories))
+                .protein(sum(consumed, NutrimentsDto::getProtein))
+                .fat(sum(consumed, NutrimentsDto::getFat))
+                .carbohydrates(sum(consumed, NutrimentsDto::getCarbohydrates))
+                .build();
+        return new IntakeReadModelRepository.Day(date, intakes, totals);
+    }
+
+    private static BigDecimal sum(List<NutrimentsDto> nutriments,
+                                  Function<NutrimentsDto, BigDecimal> value) {
+        return nutriments.stream()
+                .map(value)
+                .filter(Objects::nonNull)
+                .reduce(BigDecimal::add)
+                .orElse(null);
+    }
+
+    private static List<String> fingerprint(List<IntakeResponseDto> intakes) {
+        if (intakes == null) {
+            return List.of();
+        }
+        return intakes.stream()
+                .map(intake -> intake.getId() + ":" + intake.getVersion())
+                .sorted()
+                .toList();
+    }
+}
@@ -1,6 +1,5 @@
 package com.olehprukhnytskyi.macrotrackerintakeservice.service;
 
-import com.olehprukhnytskyi.event.UserDeletedEvent;
 import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.ExternalServiceException;
 import com.olehprukhnytskyi.exception.NotFoundException;
@@ -15,18 +14,22 @@ import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncPushRequestD
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateIntakeRequestDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
 import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
-import com.olehprukhnytskyi.macrotrackerintakeservice.producer.UserEventProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.IntakeChangeProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientCalculationStrategy;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientStrategyFactory;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.AfterCommit;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.NutrientUtils;
 import com.olehprukhnytskyi.util.UnitType;
 import feign.FeignException;
@@ -34,22 +37,25 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @Slf4j
@@ -57,7 +63,6 @@ import org.springframework.web.server.ResponseStatusException;
 @RequiredArgsConstructor
 public class IntakeService {
     private static final String INTAKE_DOMAIN = "INTAKE";
-    private static final int DELETE_BATCH_SIZE = 1000;
     private final NutrientStrategyFactory strategyFactory;
     private final IntakeRepository intakeRepository;
     private final MealTemplateApplicationRepository applicationRepository;
@@ -66,26 +71,35 @@ public class IntakeService {
     private final NutrimentsMapper nutrimentsMapper;
     private final FoodClientService foodClientService;
     private final CacheInvalidationProducer cacheInvalidationProducer;
-    private final UserEventProducer userEventProducer;
     private final PlanningEntitlementService planningEntitlementService;
+    private final IntakeChangeProducer intakeChangeProducer;
+    private final TransactionTemplate transactionTemplate;
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #intakeRequest.date")
     public IntakeResponseDto save(IntakeRequestDto intakeRequest, Long userId, UUID requestId) {
         return save(intakeRequest, userId, requestId, null);
     }
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #intakeRequest.date")
     public IntakeResponseDto save(IntakeRequestDto intakeRequest, Long userId, UUID requestId,
                                   String originDeviceId) {
         log.info("Saving intake for userId={}", userId);
-        validatePlanningAccess(userId, intakeRequest.getDate(), intakeRequest.getStatus());
-        Intake existing = intakeRepository.findByUserIdAndRequestId(userId, requestId)
-                .orElse(null);
-        if (existing != null) {
-            return intakeMapper.toDto(existing);
+        boolean planned = requiresEntitlement(intakeRequest.getDate(), intakeRequest.getStatus());
+        String foodId = intakeRequest.getFoodId();
+        String originalFoodId = intakeRequest.getOriginalFoodId();
+        FoodDto food;
+        try (ConcurrentLookups lookups = new ConcurrentLookups()) {
+            Future<Void> entitlement = forkEntitlement(lookups, userId, planned);
+            Intake existing = intakeRepository.findByUserIdAndRequestId(userId, requestId)
+                    .orElse(null);
+            if (existing != null) {
+                ConcurrentLookups.join(entitlement);
+                return intakeMapper.toDto(existing);
+            }
+            Future<FoodDto> primary = lookups.fork(() -> foodClientService.getFoodById(foodId));
+            Future<FoodDto> fallback = originalFoodId == null || originalFoodId.equals(foodId)
+                    ? null : lookups.fork(() -> foodClientService.getFoodById(originalFoodId));
+            ConcurrentLookups.join(entitlement);
+            food = resolveFood(primary, fallback, foodId, userId);
         }
-        FoodDto food = fetchFoodSafe(intakeRequest.getFoodId(),
-                intakeRequest.getOriginalFoodId(), userId);
         UnitType unitType = resolveUnitType(intakeRequest.getUnitType());
         NutrientUtils.validateUnitSupported(food, unitType);
         Intake intake = createIntakeEntity(intakeRequest, userId, food, unitType);
@@ -93,10 +107,18 @@ public class IntakeService {
         intake.setUpdatedAt(now());
         calculateAndSetNutriments(intake, food.getNutriments(), intakeRequest.getAmount());
         try {
-            Intake saved = intakeRepository.saveAndFlush(intake);
-            log.debug("Intake saved successfully userId={} intakeId={}", userId, saved.getId());
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
-            return intakeMapper.toDto(saved);
+            return transactionTemplate.execute(status -> {
+                Intake saved = intakeRepository.saveAndFlush(intake);
+                log.debug("Intake saved successfully userId={} intakeId={}",
+                        userId, saved.getId());
+                evictShoppingList(userId);
+                IntakeResponseDto dto = intakeMapper.toDto(saved);
+                cacheInvalidationProducer.send(userId, originDeviceId,
+                        new IntakeDayDelta().upsert(dto));
+                intakeChangeProducer.publish(userId, originDeviceId, null,
+                        intakeMapper.toSnapshot(dto));
+                return dto;
+            });
         } catch (DataIntegrityViolationException exception) {
             return intakeRepository.findByUserIdAndRequestId(userId, requestId)
                     .map(intakeMapper::toDto)
@@ -104,12 +126,11 @@ public class IntakeService {
         }
     }
 
-    @Cacheable(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #date")
     public List<IntakeResponseDto> findByDate(LocalDate date, Long userId) {
         log.debug("Fetching intake list for userId={} date={}", userId, date);
-        List<Intake> intakes = (date != null)
-                ? intakeRepository.findByUserIdAndDate(userId, date)
-                : intakeRepository.findByUserId(userId);
+        List<IntakeProjection> intakes = (date != null)
+                ? intakeRepository.findProjectionsByUserIdAndDate(userId, date)
+                : intakeRepository.findProjectionsByUserId(userId);
         log.debug("Fetched {} intake records for userId={}", intakes.size(), userId);
         return intakes.stream()
                 .map(intakeMapper::toDto)
@@ -121,8 +142,7 @@ public class IntakeService {
                                                    Long userId) {
         log.debug("Fetching intake list for userId={} range={}..{}", userId, startDate, endDate);
         return intakeRepository
-                .findByUserIdAndDateBetweenOrderByDateAscIntakePeriodAscIdAsc(
-                        userId, startDate, endDate)
+                .findProjectionsByUserIdAndDateBetween(userId, startDate, endDate)
                 .stream()
                 .map(intakeMapper::toDto)
                 .collect(Collectors.toList());
@@ -132,17 +152,17 @@ public class IntakeService {
     public IntakeSyncResponseDto pullSync(Long userId, Instant since, int limit) {
         Instant snapshotTime = now();
         int boundedLimit = Math.clamp(limit, 1, 500);
-        List<Intake> fetched = intakeRepository.findAllChangedAfter(
+        List<IntakeProjection> fetched = intakeRepository.findAllChangedAfter(
                 userId,
                 since,
                 PageRequest.of(0, boundedLimit + 1)
         );
         boolean hasMore = fetched.size() > boundedLimit;
-        List<Intake> page = hasMore
+        List<IntakeProjection> page = hasMore
                 ? new ArrayList<>(fetched.subList(0, boundedLimit))
                 : fetched;
         Instant nextSyncTime = hasMore && !page.isEmpty()
-                ? page.getLast().getUpdatedAt().minusNanos(1)
+                ? page.getLast().updatedAt().minusNanos(1)
                 : snapshotTime;
         return IntakeSyncResponseDto.builder()
                 .data(page.stream().map(intakeMapper::toSyncDto).toList())
@@ -160,11 +180,13 @@ public class IntakeService {
     public IntakeSyncResponseDto pushSync(Long userId, IntakeSyncPushRequestDto requestDto,
                                           String originDeviceId) {
         List<IntakeSyncItemDto> applied = new ArrayList<>();
+        IntakeDayDelta delta = new IntakeDayDelta();
         for (IntakeSyncItemDto change : requestDto.getChanges()) {
-            applySyncChange(userId, change).ifPresent(applied::add);
+            applySyncChange(userId, change, delta, originDeviceId).ifPresent(applied::add);
         }
-        if (!applied.isEmpty()) {
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
+        if (!delta.isEmpty()) {
+            evictShoppingList(userId);
+            cacheInvalidationProducer.send(userId, originDeviceId, delta);
         }
         return IntakeSyncResponseDto.builder()
                 .data(applied)
@@ -190,20 +212,24 @@ public class IntakeService {
         LocalDate requestedDate = request.getDate() == null ? intake.getDate() : request.getDate();
         validatePlanningAccess(userId, requestedDate, requestedStatus);
         ensureVersionMatches(request.getVersion(), intake);
-        LocalDate oldDate = intake.getDate();
-        manualEvict(userId, oldDate);
+        final IntakeSnapshot before = intakeMapper.toSnapshot(intake);
+        final LocalDate oldDate = intake.getDate();
         Integer oldAmount = intake.getAmount();
         UnitType oldUnit = intake.getUnitType();
         intakeMapper.updateFromDto(intake, request);
         recalculateIfNecessary(intake, oldAmount, oldUnit);
         intake.setUpdatedAt(now());
-        if (!Objects.equals(oldDate, intake.getDate())) {
-            manualEvict(userId, intake.getDate());
-        }
-        Intake saved = intakeRepository.save(intake);
+        evictShoppingList(userId);
+        Intake saved = intakeRepository.saveAndFlush(intake);
         log.debug("Intake updated successfully id={} userId={}", id, userId);
-        cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
-        return intakeMapper.toDto(saved);
+        IntakeResponseDto dto = intakeMapper.toDto(saved);
+        IntakeDayDelta delta = new IntakeDayDelta();
+        if (!Objects.equals(oldDate, saved.getDate())) {
+            delta.remove(id, oldDate);
+        }
+        cacheInvalidationProducer.send(userId, originDeviceId, delta.upsert(dto));
+        intakeChangeProducer.publish(userId, originDeviceId, before, intakeMapper.toSnapshot(dto));
+        return dto;
     }
 
     @Transactional
@@ -215,28 +241,17 @@ public class IntakeService {
     public void deleteById(Long id, Long userId, String originDeviceId) {
         log.info("Deleting intake id={} for userId={}", id, userId);
         intakeRepository.findByIdAndUserId(id, userId).ifPresent(intake -> {
-            manualEvict(userId, intake.getDate());
+            final IntakeSnapshot before = intakeMapper.toSnapshot(intake);
             intake.setDeleted(true);
             intake.setUpdatedAt(now());
             intakeRepository.saveAndFlush(intake);
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
+            evictShoppingList(userId);
+            cacheInvalidationProducer.send(userId, originDeviceId,
+                    IntakeDayDelta.removed(id, intake.getDate()));
+            intakeChangeProducer.publish(userId, originDeviceId, before, null);
         });
     }
 
-    @Transactional
-    public void deleteUserIntakesRecursively(Long userId) {
-        log.info("Processing batch deletion for user: {}", userId);
-        int deletedCount = intakeRepository.deleteBatchByUserId(userId, DELETE_BATCH_SIZE);
-        log.info("Deleted {} intake records for user {}", deletedCount, userId);
-        if (deletedCount >= DELETE_BATCH_SIZE) {
-            log.info("User {} still has data. Republishing event to continue deletion.",
-                    userId);
-            userEventProducer.sendUserDeletedEvent(new UserDeletedEvent(userId));
-        } else {
-            log.info("Data cleanup completed for user {}", userId);
-        }
-    }
-
     @Transactional
     public void undoIntakeGroup(UUID mealGroupId, Long userId) {
         undoIntakeGroup(mealGroupId, userId, null);
@@ -245,13 +260,22 @@ public class IntakeService {
     @Transactional
     public void undoIntakeGroup(UUID mealGroupId, Long userId, String originDeviceId) {
         log.info("Reverting intake group {} for user {}", mealGroupId, userId);
-        intakeRepository
+        Optional<LocalDate> groupDate = intakeRepository
                 .findFirstByMealGroupIdAndUserIdAndDeletedFalse(mealGroupId.toString(), userId)
-                .ifPresent(intake -> manualEvictUserIntakes(userId, intake.getDate()));
+                .map(Intake::getDate);
+        List<IntakeSnapshot> removed = intakeChangeProducer.isEnabled()
+                ? snapshots(intakeRepository.findProjectionsByMealGroupIdInAndUserId(
+                        List.of(mealGroupId.toString()), userId))
+                : List.of();
         int deleted = intakeRepository.softDeleteByMealGroupIdAndUserId(
                 mealGroupId.toString(), userId, now());
         if (deleted > 0) {
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
+            groupDate.ifPresent(date -> manualEvict(userId, date));
+            evictShoppingList(userId);
+            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId,
+                    groupDate.map(List::of).orElse(null), null);
+            removed.forEach(before ->
+                    intakeChangeProducer.publish(userId, originDeviceId, before, null));
         }
         applicationRepository.deleteByUserIdAndMealGroupId(userId, mealGroupId);
     }
@@ -263,31 +287,82 @@ public class IntakeService {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Planned meals can only be logged on or after their date");
         }
-        List<Intake> planned = intakeRepository.findByUserIdAndDateAndStatus(
-                userId, date, IntakeStatus.PLANNED);
         Instant updatedAt = now();
-        planned.forEach(intake -> {
-            intake.setStatus(IntakeStatus.CONSUMED);
-            intake.setUpdatedAt(updatedAt);
-        });
-        List<Intake> saved = intakeRepository.saveAll(planned);
+        int consumed = intakeRepository.consumePlannedByUserIdInAndDate(
+                List.of(userId), date, updatedAt);
         manualEvict(userId, date);
-        if (!saved.isEmpty()) {
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
+        if (consumed == 0) {
+            return List.of();
         }
-        return saved.stream().map(intakeMapper::toDto).toList();
+        List<IntakeResponseDto> consumedIntakes = intakeRepository
+                .findProjectionsConsumedAt(List.of(userId), date, updatedAt).stream()
+                .map(intakeMapper::toDto)
+                .toList();
+        evictShoppingList(userId);
+        cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId, List.of(date),
+                consumedIntakes.stream().map(IntakeResponseDto::getId).toList());
+        publishConsumed(userId, originDeviceId, consumedIntakes.stream()
+                .map(intakeMapper::toSnapshot)
+                .toList());
+        return consumedIntakes;
     }
 
-    private void manualEvictUserIntakes(Long userId, LocalDate date) {
-        String key = userId + ":" + date;
-        try {
-            Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
-            if (cache != null) {
-                cache.evict(key);
-            }
-        } catch (Exception e) {
-            log.error("Failed to evict cache for key {}", key, e);
+    @Transactional
+    public int rolloverPlanned(LocalDate date, List<Long> userIds) {
+        Instant updatedAt = now();
+        int consumed = intakeRepository.consumePlannedByUserIdInAndDate(userIds, date, updatedAt);
+        if (consumed == 0) {
+            return 0;
         }
+        Map<Long, List<IntakeProjection>> consumedByUser = intakeRepository
+                .findProjectionsConsumedAt(userIds, date, updatedAt).stream()
+                .collect(Collectors.groupingBy(IntakeProjection::userId, LinkedHashMap::new,
+                        Collectors.toList()));
+        consumedByUser.forEach((userId, intakes) -> {
+            manualEvict(userId, date);
+            evictShoppingList(userId);
+            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, null, List.of(date), null);
+            if (intakeChangeProducer.isEnabled()) {
+                publishConsumed(userId, null, snapshots(intakes));
+            }
+        });
+        log.debug("Rolled over {} planned intakes for {} of {} users on {}",
+                consumed, consumedByUser.size(), userIds.size(), date);
+        return consumed;
+    }
+
+    private void publishConsumed(Long userId, String originDeviceId,
+                                 List<IntakeSnapshot> consumed) {
+        consumed.stream()
+                .filter(Objects::nonNull)
+                .forEach(after -> intakeChangeProducer.publish(userId, originDeviceId,
+                        after.toBuilder()
+                                .status(IntakeStatus.PLANNED)
+                                .updatedAt(null)
+                                .version(after.getVersion() == null
+                                        ? null : after.getVersion() - 1)
+                                .build(),
+                        after));
+    }
+
+    private List<IntakeSnapshot> snapshots(List<IntakeProjection> projections) {
+        return projections.stream()
+                .map(intakeMapper::toDto)
+                .map(intakeMapper::toSnapshot)
+                .toList();
+    }
+
+    private void evictShoppingList(Long userId) {
+        AfterCommit.run(() -> {
+            try {
+                Cache cache = cacheManager.getCache(CacheConstants.SHOPPING_LISTS);
+                if (cache != null) {
+                    cache.evict(CacheKeys.user(userId));
+                }
+            } catch (Exception e) {
+                log.error("Failed to evict shopping list for userId={}", userId, e);
+            }
+        });
     }
 
     private Intake createIntakeEntity(IntakeRequestDto dto, Long userId,
@@ -304,20 +379,37 @@ public class IntakeService {
     }
 
     private void validatePlanningAccess(Long userId, LocalDate date, IntakeStatus status) {
+        if (requiresEntitlement(date, status)) {
+            planningEntitlementService.requireFuturePlanning(userId);
+        }
+    }
+
+    private boolean requiresEntitlement(LocalDate date, IntakeStatus status) {
         IntakeStatus effectiveStatus = status == null ? IntakeStatus.CONSUMED : status;
         if (effectiveStatus != IntakeStatus.PLANNED) {
             if (date != null && date.isAfter(LocalDate.now())) {
                 throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                         "Future intake entries must be PLANNED");
             }
-            return;
+            return false;
         }
         LocalDate today = LocalDate.now();
         if (date == null || date.isBefore(today) || date.isAfter(today.plusDays(14))) {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Planned meals must be dated within the next 14 days");
         }
-        planningEntitlementService.requireFuturePlanning(userId);
+        return true;
+    }
+
+    private Future<Void> forkEntitlement(ConcurrentLookups lookups, Long userId,
+                                         boolean planned) {
+        if (!planned) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return lookups.fork(() -> {
+            planningEntitlementService.requireFuturePlanning(userId);
+            return null;
+        });
     }
 
     private void calculateAndSetNutriments(Intake intake, NutrimentsDto sourceNutriments,
@@ -332,13 +424,14 @@ public class IntakeService {
         return requested != null ? requested : UnitType.GRAMS;
     }
 
-    private FoodDto fetchFoodSafe(String foodId, String originalFoodId, Long userId) {
+    private FoodDto resolveFood(Future<FoodDto> primary, Future<FoodDto> fallback,
+                                String foodId, Long userId) {
         try {
-            return foodClientService.getFoodById(foodId);
+            return ConcurrentLookups.join(primary);
         } catch (FeignException.NotFound ex) {
-            if (originalFoodId != null) {
+            if (fallback != null) {
                 try {
-                    return foodClientService.getFoodById(originalFoodId);
+                    return ConcurrentLookups.join(fallback);
                 } catch (FeignException.NotFound fallbackEx) {
                     log.warn("Neither foodId nor originalFoodId found for userId={}", userId);
                 }
@@ -365,7 +458,9 @@ public class IntakeService {
         }
     }
 
-    private Optional<IntakeSyncItemDto> applySyncChange(Long userId, IntakeSyncItemDto change) {
+    private Optional<IntakeSyncItemDto> applySyncChange(Long userId, IntakeSyncItemDto change,
+                                                        IntakeDayDelta delta,
+                                                        String originDeviceId) {
         if (change.getUpdatedAt() == null) {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Intake sync changes must include updatedAt");
@@ -380,18 +475,25 @@ public class IntakeService {
             if (intake.isDeleted() && !change.isDeleted()) {
                 return Optional.of(intakeMapper.toSyncDto(intake));
             }
+            IntakeSnapshot before = intake.isDeleted() ? null : intakeMapper.toSnapshot(intake);
             if (change.isDeleted()) {
                 intake.setDeleted(true);
                 intake.setUpdatedAt(now());
                 Intake saved = intakeRepository.saveAndFlush(intake);
-                manualEvict(userId, oldDate);
+                delta.remove(saved.getId(), oldDate);
+                intakeChangeProducer.publish(userId, originDeviceId, before, null);
                 return Optional.of(intakeMapper.toSyncDto(saved));
             }
             applySyncState(intake, change);
             intake.setUpdatedAt(now());
             Intake saved = intakeRepository.saveAndFlush(intake);
-            manualEvict(userId, oldDate);
-            manualEvict(userId, saved.getDate());
+            if (!Objects.equals(oldDate, saved.getDate())) {
+                delta.remove(saved.getId(), oldDate);
+            }
+            IntakeResponseDto dto = intakeMapper.toDto(saved);
+            delta.upsert(dto);
+            intakeChangeProducer.publish(userId, originDeviceId, before,
+                    intakeMapper.toSnapshot(dto));
             return Optional.of(intakeMapper.toSyncDto(saved));
         }
 
@@ -406,7 +508,7 @@ public class IntakeService {
             intake.setDeleted(true);
             intake.setUpdatedAt(now());
             Intake saved = intakeRepository.saveAndFlush(intake);
-            manualEvict(userId, saved.getDate());
+            delta.remove(saved.getId(), saved.getDate());
             return Optional.of(intakeMapper.toSyncDto(saved));
         }
         validateActiveSyncChange(change);
@@ -415,7 +517,9 @@ public class IntakeService {
         applySyncState(intake, change);
         intake.setUpdatedAt(now());
         Intake saved = intakeRepository.saveAndFlush(intake);
-        manualEvict(userId, saved.getDate());
+        IntakeResponseDto dto = intakeMapper.toDto(saved);
+        delta.upsert(dto);
+        intakeChangeProducer.publish(userId, originDeviceId, null, intakeMapper.toSnapshot(dto));
         return Optional.of(intakeMapper.toSyncDto(saved));
     }
 
@@ -469,15 +573,17 @@ public class IntakeService {
         if (date == null) {
             return;
         }
-        String key = userId + ":" + date;
-        try {
-            Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
-            if (cache != null) {
-                cache.evict(key);
+        String key = CacheKeys.userDay(userId, date);
+        AfterCommit.run(() -> {
+            try {
+                Cache cache = cacheManager.getCache(CacheConstants.USER_INTAKES);
+                if (cache != null) {
+                    cache.evict(key);
+                }
+            } catch (Exception e) {
+                log.error("Failed to evict cache", e);
             }
-        } catch (Exception e) {
-            log.error("Failed to evict cache", e);
-        }
+        });
     }
 
     private Instant now() {
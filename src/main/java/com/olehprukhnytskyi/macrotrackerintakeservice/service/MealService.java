@@ -5,47 +5,66 @@ import com.olehprukhnytskyi.exception.NotFoundException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.exception.error.FoodErrorCode;
 import com.olehprukhnytskyi.exception.error.IntakeErrorCode;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCache;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CacheablePage;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.FoodDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealPlanBatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateSummaryDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateMealTemplateDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.MealTemplateMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateApplication;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
 import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.IntakeChangeProducer;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientCalculationStrategy;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientStrategyFactory;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.AfterCommit;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.NutrientUtils;
 import com.olehprukhnytskyi.util.IntakePeriod;
 import com.olehprukhnytskyi.util.UnitType;
+import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.List;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class MealService {
-    private static final String INTAKE_DOMAIN = "INTAKE";
     private final NutrientStrategyFactory strategyFactory;
     private final IntakeRepository intakeRepository;
     private final MealTemplateRepository mealTemplateRepository;
@@ -57,16 +76,53 @@ public class MealService {
     private final NutrimentsMapper nutrimentsMapper;
     private final FoodClientService foodClientService;
     private final PlanningEntitlementService planningEntitlementService;
+    private final CacheManager cacheManager;
+    private final ResponseVersionService responseVersionService;
+    private final IntakeChangeProducer intakeChangeProducer;
+    private final TransactionTemplate transactionTemplate;
 
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConstants.MEAL_TEMPLATES, key = "#userId")
+    @Cacheable(value = CacheConstants.MEAL_TEMPLATES, key = CacheConstants.USER_KEY)
     public List<MealTemplateResponseDto> getTemplates(Long userId) {
         log.info("Fetching meal templates from DB for userId={}", userId);
         List<MealTemplate> templates = mealTemplateRepository.findAllByUserId(userId);
         return mealTemplateMapper.toDtoList(templates);
     }
 
-    @CacheEvict(value = CacheConstants.MEAL_TEMPLATES, key = "#userId")
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConstants.MEAL_TEMPLATE_PAGES,
+            key = CacheConstants.USER_KEY
+                    + " + ':' + #recipeOnly + ':' + #namePrefix + ':' + #page + ':' + #size")
+    public CacheablePage<MealTemplateResponseDto> getTemplatePage(Long userId, boolean recipeOnly,
+                                                                  String namePrefix,
+                                                                  int page, int size) {
+        log.info("Fetching meal template page={} size={} from DB for userId={}",
+                page, size, userId);
+        Pageable pageable = PageRequest.of(page, size);
+        Page<Long> ids = mealTemplateRepository.findIdsByUserIdAndFilter(
+                userId, recipeOnly, toPrefixPattern(namePrefix), pageable);
+        Map<Long, MealTemplate> templates = ids.isEmpty() ? Map.of()
+                : mealTemplateRepository.findAllByUserIdAndIdIn(userId, ids.getContent())
+                        .stream()
+                        .collect(Collectors.toMap(MealTemplate::getId, template -> template));
+        List<MealTemplateResponseDto> content = ids.getContent().stream()
+                .map(templates::get)
+                .filter(Objects::nonNull)
+                .map(mealTemplateMapper::toDto)
+                .toList();
+        return CacheablePage.fromPage(new PageImpl<>(content, pageable, ids.getTotalElements()));
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConstants.MEAL_TEMPLATE_SUMMARIES, key = CacheConstants.USER_KEY)
+    public List<MealTemplateSummaryDto> getTemplateSummaries(Long userId) {
+        log.info("Fetching meal template summaries from DB for userId={}", userId);
+        return mealTemplateMapper.toSummaryDtoList(
+                mealTemplateRepository.findSummariesByUserId(userId));
+    }
+
+    @CacheEvict(value = {CacheConstants.MEAL_TEMPLATES, CacheConstants.MEAL_TEMPLATE_SUMMARIES},
+            key = CacheConstants.USER_KEY)
     public Long createTemplate(MealTemplateRequestDto request, Long userId, UUID requestId) {
         log.info("Creating meal template '{}' for userId={}", request.getName(), userId);
         MealTemplate existing = mealTemplateRepository.findByUserIdAndRequestId(userId, requestId)
@@ -93,8 +149,11 @@ public class MealService {
                         dto.getAmount(), dto.getUnitType()))
                 .collect(Collectors.toList());
         template.setItems(items);
+        updateTotals(template);
         try {
-            return mealTemplateRepository.saveAndFlush(template).getId();
+            Long templateId = mealTemplateRepository.saveAndFlush(template).getId();
+            evictTemplatePages(userId);
+            return templateId;
         } catch (DataIntegrityViolationException exception) {
             return mealTemplateRepository.findByUserIdAndRequestId(userId, requestId)
                     .map(MealTemplate::getId)
@@ -102,14 +161,12 @@ public class MealService {
         }
     }
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #date")
     public List<IntakeResponseDto> applyTemplate(Long templateId, LocalDate date,
                                                  IntakePeriod period, UUID mealGroupId,
                                                  Long userId, UUID requestId) {
         return applyTemplate(templateId, date, period, mealGroupId, userId, requestId, null);
     }
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #date")
     public List<IntakeResponseDto> applyTemplate(Long templateId, LocalDate date,
                                                  IntakePeriod period, UUID mealGroupId,
                                                  Long userId, UUID requestId,
@@ -122,11 +179,13 @@ public class MealService {
         }
         IntakePeriod resolvedPeriod = period != null ? period : IntakePeriod.SNACK;
         try {
-            List<IntakeResponseDto> created = applicationService.create(
-                    templateId, date, resolvedPeriod, mealGroupId,
-                    userId, requestId);
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
-            return created;
+            return transactionTemplate.execute(status -> {
+                List<IntakeResponseDto> created = applicationService.create(
+                        templateId, date, resolvedPeriod, mealGroupId,
+                        userId, requestId);
+                publishApplied(userId, originDeviceId, created);
+                return created;
+            });
         } catch (DataIntegrityViolationException exception) {
             List<IntakeResponseDto> concurrentlyCreated = findAppliedIntakes(userId, requestId);
             if (concurrentlyCreated != null) {
@@ -136,16 +195,49 @@ public class MealService {
         }
     }
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #date")
-    public IntakeResponseDto applyRecipe(Long templateId, Integer consumedAmount,
-                                         UnitType unitType,
-                                         LocalDate date, IntakePeriod period,
+    public List<IntakeResponseDto> applyTemplates(List<MealPlanBatchRequestDto.EntryDto> entries,
+                                                  Long userId, String originDeviceId) {
+        log.info("Applying {} template entries for userId={}", entries.size(), userId);
+        validateUniqueBatchKeys(entries);
+        validateFutureDates(entries.stream()
+                .map(MealPlanBatchRequestDto.EntryDto::getDate)
+                .collect(Collectors.toSet()), userId);
+        Map<UUID, List<IntakeResponseDto>> applied = findAppliedIntakes(userId, entries);
+        List<MealPlanBatchRequestDto.EntryDto> pending = entries.stream()
+                .filter(entry -> !applied.containsKey(entry.getRequestId()))
+                .toList();
+        if (!pending.isEmpty()) {
+            try {
+                applied.putAll(transactionTemplate.execute(status -> {
+                    Map<UUID, List<IntakeResponseDto>> created =
+                            applicationService.createBatch(pending, userId);
+                    publishApplied(userId, originDeviceId, pending.stream()
+                            .flatMap(entry -> created.get(entry.getRequestId()).stream())
+                            .toList());
+                    return created;
+                }));
+            } catch (DataIntegrityViolationException exception) {
+                Map<UUID, List<IntakeResponseDto>> concurrentlyApplied =
+                        findAppliedIntakes(userId, entries);
+                if (concurrentlyApplied.size() != entries.size()) {
+                    throw exception;
+                }
+                applied.putAll(concurrentlyApplied);
+            }
+        }
+        return entries.stream()
+                .flatMap(entry -> applied.get(entry.getRequestId()).stream())
+                .toList();
+    }
+
+    public IntakeResponseDto applyRecipe(Long templateId, Integer consumedAmount,
+                                         UnitType unitType,
+                                         LocalDate date, IntakePeriod period,
                                          Long userId, UUID requestId) {
         return applyRecipe(templateId, consumedAmount, unitType, date, period, userId,
                 requestId, null);
     }
 
-    @CacheEvict(value = CacheConstants.USER_INTAKES, key = "#userId + ':' + #date")
     public IntakeResponseDto applyRecipe(Long templateId, Integer consumedAmount,
                                          UnitType unitType,
                                          LocalDate date, IntakePeriod period,
@@ -160,11 +252,13 @@ public class MealService {
         }
         IntakePeriod resolvedPeriod = period != null ? period : IntakePeriod.SNACK;
         try {
-            IntakeResponseDto created = applicationService.createRecipe(
-                    templateId, consumedAmount, unitType,
-                    date, resolvedPeriod, userId, requestId);
-            cacheInvalidationProducer.send(userId, INTAKE_DOMAIN, originDeviceId);
-            return created;
+            return transactionTemplate.execute(status -> {
+                IntakeResponseDto created = applicationService.createRecipe(
+                        templateId, consumedAmount, unitType,
+                        date, resolvedPeriod, userId, requestId);
+                publishApplied(userId, originDeviceId, List.of(created));
+                return created;
+            });
         } catch (DataIntegrityViolationException exception) {
             List<IntakeResponseDto> concurrentlyCreated = findAppliedIntakes(userId, requestId);
             if (concurrentlyCreated != null && !concurrentlyCreated.isEmpty()) {
@@ -175,17 +269,21 @@ public class MealService {
     }
 
     @Transactional
-    @CacheEvict(value = CacheConstants.MEAL_TEMPLATES, key = "#userId")
+    @CacheEvict(value = {CacheConstants.MEAL_TEMPLATES, CacheConstants.MEAL_TEMPLATE_SUMMARIES},
+            key = CacheConstants.USER_KEY)
     public void deleteTemplate(Long templateId, Long userId) {
         log.info("Deleting template id={} for userId={}", templateId, userId);
         MealTemplate template = mealTemplateRepository.findByIdAndUserId(templateId, userId)
                 .orElseThrow(() -> new NotFoundException(IntakeErrorCode.INTAKE_NOT_FOUND,
                         "Template not found or does not belong to user"));
         mealTemplateRepository.delete(template);
+        evictTemplatePages(userId);
+        evictShoppingList(userId);
     }
 
     @Transactional
-    @CacheEvict(value = CacheConstants.MEAL_TEMPLATES, key = "#userId")
+    @CacheEvict(value = {CacheConstants.MEAL_TEMPLATES, CacheConstants.MEAL_TEMPLATE_SUMMARIES},
+            key = CacheConstants.USER_KEY)
     public void updateTemplate(Long templateId, UpdateMealTemplateDto request, Long userId) {
         log.info("Updating template id={} for userId={}", templateId, userId);
         MealTemplate template = mealTemplateRepository.findByIdAndUserId(templateId, userId)
@@ -210,8 +308,11 @@ public class MealService {
         if (request.getItems() != null) {
             Map<String, FoodDto> newFoodsMap = resolveNewFoods(request.getItems(), template);
             syncTemplateItems(template, request.getItems(), newFoodsMap);
+            updateTotals(template);
         }
         mealTemplateRepository.save(template);
+        evictTemplatePages(userId);
+        evictShoppingList(userId);
         log.debug("Meal template updated successfully id={} userId={}", templateId, userId);
     }
 
@@ -269,17 +370,114 @@ public class MealService {
         }
     }
 
+    private void updateTotals(MealTemplate template) {
+        BigDecimal calories = BigDecimal.ZERO;
+        BigDecimal carbohydrates = BigDecimal.ZERO;
+        BigDecimal fat = BigDecimal.ZERO;
+        BigDecimal protein = BigDecimal.ZERO;
+        for (MealTemplateItem item : template.getItems()) {
+            Nutriments nutriments = item.getNutriments();
+            if (nutriments == null) {
+                continue;
+            }
+            calories = calories.add(safe(nutriments.getCalories()));
+            carbohydrates = carbohydrates.add(safe(nutriments.getCarbohydrates()));
+            fat = fat.add(safe(nutriments.getFat()));
+            protein = protein.add(safe(nutriments.getProtein()));
+        }
+        template.setTotalCalories(calories);
+        template.setTotalCarbohydrates(carbohydrates);
+        template.setTotalFat(fat);
+        template.setTotalProtein(protein);
+    }
+
+    private BigDecimal safe(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+
     private void validateFutureDate(LocalDate date, Long userId) {
+        validateFutureDates(Set.of(date), userId);
+    }
+
+    private void validateFutureDates(Collection<LocalDate> dates, Long userId) {
         LocalDate today = LocalDate.now();
-        if (date.isAfter(today.plusDays(14))) {
+        if (dates.stream().anyMatch(date -> date.isAfter(today.plusDays(14)))) {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Meals can be planned up to 14 days ahead");
         }
-        if (date.isAfter(today)) {
+        if (dates.stream().anyMatch(date -> date.isAfter(today))) {
             planningEntitlementService.requireFuturePlanning(userId);
         }
     }
 
+    private void validateUniqueBatchKeys(List<MealPlanBatchRequestDto.EntryDto> entries) {
+        long requestIds = entries.stream()
+                .map(MealPlanBatchRequestDto.EntryDto::getRequestId)
+                .distinct()
+                .count();
+        long mealGroupIds = entries.stream()
+                .map(MealPlanBatchRequestDto.EntryDto::getMealGroupId)
+                .distinct()
+                .count();
+        if (requestIds != entries.size() || mealGroupIds != entries.size()) {
+            throw new BadRequestException(CommonErrorCode.VALIDATION_ERROR,
+                    "requestId and mealGroupId must be unique within a batch");
+        }
+    }
+
+    private String toPrefixPattern(String namePrefix) {
+        if (namePrefix == null || namePrefix.isBlank()) {
+            return "%";
+        }
+        return namePrefix.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    private void evictTemplatePages(Long userId) {
+        responseVersionService.templatesChanged(userId);
+        AfterCommit.run(() -> {
+            try {
+                Cache cache = cacheManager.getCache(CacheConstants.MEAL_TEMPLATE_PAGES);
+                if (cache instanceof ResilientRedisCache redisCache) {
+                    redisCache.evictUser(userId);
+                } else if (cache != null) {
+                    cache.clear();
+                }
+            } catch (Exception e) {
+                log.error("Failed to evict template pages for userId={}", userId, e);
+            }
+        });
+    }
+
+    private void evictShoppingList(Long userId) {
+        AfterCommit.run(() -> {
+            try {
+                Cache cache = cacheManager.getCache(CacheConstants.SHOPPING_LISTS);
+                if (cache != null) {
+                    cache.evict(CacheKeys.user(userId));
+                }
+            } catch (Exception e) {
+                log.error("Failed to evict shopping list for userId={}", userId, e);
+            }
+        });
+    }
+
+    private void publishApplied(Long userId, String originDeviceId,
+                                List<IntakeResponseDto> created) {
+        evictShoppingList(userId);
+        cacheInvalidationProducer.send(userId, originDeviceId, IntakeDayDelta.of(created));
+        publishCreated(userId, originDeviceId, created);
+    }
+
+    private void publishCreated(Long userId, String originDeviceId,
+                                List<IntakeResponseDto> created) {
+        intakeChangeProducer.created(userId, originDeviceId, created.stream()
+                .map(intakeMapper::toSnapshot)
+                .toList());
+    }
+
     private void moveItemToRequestedPosition(List<MealTemplateItem> items,
                                              MealTemplateItem item,
                                              int requestedPosition) {
@@ -331,6 +529,31 @@ public class MealService {
                 .orElse(null);
     }
 
+    private Map<UUID, List<IntakeResponseDto>> findAppliedIntakes(
+            Long userId, List<MealPlanBatchRequestDto.EntryDto> entries) {
+        List<UUID> requestIds = entries.stream()
+                .map(MealPlanBatchRequestDto.EntryDto::getRequestId)
+                .toList();
+        List<MealTemplateApplication> applications = applicationRepository
+                .findAllByUserIdAndRequestIdIn(userId, requestIds);
+        Map<UUID, List<IntakeResponseDto>> applied = new HashMap<>();
+        if (applications.isEmpty()) {
+            return applied;
+        }
+        Map<String, List<IntakeResponseDto>> intakesByGroup = intakeRepository
+                .findProjectionsByMealGroupIdInAndUserId(applications.stream()
+                        .map(application -> application.getMealGroupId().toString())
+                        .toList(), userId)
+                .stream()
+                .map(intakeMapper::toDto)
+                .collect(Collectors.groupingBy(IntakeResponseDto::getMealGroupId));
+        for (MealTemplateApplication application : applications) {
+            applied.put(application.getRequestId(), intakesByGroup.getOrDefault(
+                    application.getMealGroupId().toString(), List.of()));
+        }
+        return applied;
+    }
+
     private Map<String, FoodDto> fetchAndValidateFoods(List<String> foodIds) {
         if (foodIds.isEmpty()) {
             return Collections.emptyMap();
@@ -5,6 +5,7 @@ import com.olehprukhnytskyi.exception.NotFoundException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.exception.error.IntakeErrorCode;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealPlanBatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
@@ -16,14 +17,18 @@ import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.NutrientVector;
 import com.olehprukhnytskyi.util.IntakePeriod;
 import com.olehprukhnytskyi.util.UnitType;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,7 +37,7 @@ import org.springframework.transaction.annotation.Transactional;
 @RequiredArgsConstructor
 public class MealTemplateApplicationService {
     private static final int NUTRIENT_SCALE = 2;
-    private static final int RATIO_SCALE = 6;
+    private static final long RATIO_UNIT = 1_000_000L;
 
     private final IntakeRepository intakeRepository;
     private final MealTemplateRepository mealTemplateRepository;
@@ -50,21 +55,61 @@ public class MealTemplateApplicationService {
             throw new BadRequestException(CommonErrorCode.VALIDATION_ERROR,
                     "Recipe templates must be applied through the recipe endpoint");
         }
-        MealTemplateApplication application = MealTemplateApplication.builder()
-                .userId(userId)
-                .requestId(requestId)
-                .mealGroupId(mealGroupId)
-                .templateId(templateId)
-                .date(date)
-                .intakePeriod(period)
-                .build();
-        applicationRepository.saveAndFlush(application);
+        applicationRepository.saveAndFlush(buildApplication(templateId, date, period,
+                mealGroupId, userId, requestId));
 
         List<Intake> intakes = createIntakes(template, date, period, mealGroupId, userId);
         List<Intake> savedIntakes = intakeRepository.saveAllAndFlush(intakes);
         return savedIntakes.stream().map(intakeMapper::toDto).toList();
     }
 
+    @Transactional
+    public Map<UUID, List<IntakeResponseDto>> createBatch(
+            List<MealPlanBatchRequestDto.EntryDto> entries, Long userId) {
+        Set<Long> templateIds = entries.stream()
+                .map(MealPlanBatchRequestDto.EntryDto::getTemplateId)
+                .collect(Collectors.toSet());
+        Map<Long, MealTemplate> templates = mealTemplateRepository
+                .findAllByUserIdAndIdIn(userId, templateIds).stream()
+                .collect(Collectors.toMap(MealTemplate::getId, template -> template));
+        List<MealTemplateApplication> applications = new ArrayList<>(entries.size());
+        List<Intake> intakes = new ArrayList<>();
+        int[] itemCounts = new int[entries.size()];
+        for (int index = 0; index < entries.size(); index++) {
+            MealPlanBatchRequestDto.EntryDto entry = entries.get(index);
+            MealTemplate template = templates.get(entry.getTemplateId());
+            if (template == null) {
+                throw new NotFoundException(IntakeErrorCode.INTAKE_NOT_FOUND,
+                        "Template not found: " + entry.getTemplateId());
+            }
+            if (template.isRecipe()) {
+                throw new BadRequestException(CommonErrorCode.VALIDATION_ERROR,
+                        "Recipe templates must be applied through the recipe endpoint");
+            }
+            IntakePeriod period = entry.getPeriod() != null
+                    ? entry.getPeriod() : IntakePeriod.SNACK;
+            applications.add(buildApplication(template.getId(), entry.getDate(), period,
+                    entry.getMealGroupId(), userId, entry.getRequestId()));
+            List<Intake> created = createIntakes(template, entry.getDate(), period,
+                    entry.getMealGroupId(), userId);
+            itemCounts[index] = created.size();
+            intakes.addAll(created);
+        }
+        applicationRepository.saveAllAndFlush(applications);
+        List<Intake> savedIntakes = intakeRepository.saveAllAndFlush(intakes);
+
+        Map<UUID, List<IntakeResponseDto>> result = new LinkedHashMap<>();
+        int offset = 0;
+        for (int index = 0; index < entries.size(); index++) {
+            result.put(entries.get(index).getRequestId(), savedIntakes
+                    .subList(offset, offset + itemCounts[index]).stream()
+                    .map(intakeMapper::toDto)
+                    .toList());
+            offset += itemCounts[index];
+        }
+        return result;
+    }
+
     @Transactional
     public IntakeResponseDto createRecipe(Long templateId, Integer consumedAmount,
                                           UnitType unitType,
@@ -79,15 +124,8 @@ public class MealTemplateApplicationService {
         }
         validateRecipeInput(template, consumedAmount, unitType);
         UUID mealGroupId = UUID.randomUUID();
-        MealTemplateApplication application = MealTemplateApplication.builder()
-                .userId(userId)
-                .requestId(requestId)
-                .mealGroupId(mealGroupId)
-                .templateId(templateId)
-                .date(date)
-                .intakePeriod(period)
-                .build();
-        applicationRepository.saveAndFlush(application);
+        applicationRepository.saveAndFlush(buildApplication(templateId, date, period,
+                mealGroupId, userId, requestId));
 
         Intake saved = saveRecipeIntake(template, consumedAmount, unitType, userId,
                 date, period, requestId, mealGroupId);
@@ -104,6 +142,19 @@ public class MealTemplateApplicationService {
         return intakeMapper.toDto(saved);
     }
 
+    private MealTemplateApplication buildApplication(Long templateId, LocalDate date,
+                                                     IntakePeriod period, UUID mealGroupId,
+                                                     Long userId, UUID requestId) {
+        return MealTemplateApplication.builder()
+                .userId(userId)
+                .requestId(requestId)
+                .mealGroupId(mealGroupId)
+                .templateId(templateId)
+                .date(date)
+                .intakePeriod(period)
+                .build();
+    }
+
     private List<Intake> createIntakes(MealTemplate template, LocalDate date,
                                        IntakePeriod period, UUID mealGroupId, Long userId) {
         List<Intake> intakes = new ArrayList<>();
@@ -156,64 +207,37 @@ public class MealTemplateApplicationService {
 
     private Nutriments calculateRecipeNutriments(MealTemplate template,
                                                  Integer consumedAmount) {
-        Nutriments total = template.getItems().stream()
-                .map(MealTemplateItem::getNutriments)
-                .reduce(new Nutriments(), this::addNutriments);
-        BigDecimal totalYield = BigDecimal.valueOf(template.getTotalYieldAmount());
-        BigDecimal ratio = BigDecimal.valueOf(consumedAmount)
-                .divide(totalYield, RATIO_SCALE, RoundingMode.HALF_UP);
+        NutrientVector total = NutrientVector.of(
+                safe(template.getTotalCalories()),
+                safe(template.getTotalCarbohydrates()),
+                safe(template.getTotalFat()),
+                safe(template.getTotalProtein()));
+        long totalYield = template.getTotalYieldAmount();
+        long ratio = NutrientVector.divideHalfUp(consumedAmount * RATIO_UNIT, totalYield);
 
         Nutriments result = new Nutriments();
-        result.setCalories(scale(total.getCalories().multiply(ratio)));
-        result.setCarbohydrates(scale(total.getCarbohydrates().multiply(ratio)));
-        result.setFat(scale(total.getFat().multiply(ratio)));
-        result.setProtein(scale(total.getProtein().multiply(ratio)));
+        total.multiplyDivide(ratio, RATIO_UNIT, NUTRIENT_SCALE).applyTo(result);
         setUnitNutriments(result, total, totalYield, template.getYieldUnitType());
         return result;
     }
 
-    private Nutriments addNutriments(Nutriments left, Nutriments right) {
-        Nutriments leftValue = left != null ? left : new Nutriments();
-        Nutriments rightValue = right != null ? right : new Nutriments();
-        Nutriments result = new Nutriments();
-        result.setCalories(safe(leftValue.getCalories()).add(safe(rightValue.getCalories())));
-        result.setCarbohydrates(safe(leftValue.getCarbohydrates())
-                .add(safe(rightValue.getCarbohydrates())));
-        result.setFat(safe(leftValue.getFat()).add(safe(rightValue.getFat())));
-        result.setProtein(safe(leftValue.getProtein()).add(safe(rightValue.getProtein())));
-        return result;
-    }
-
-    private void setUnitNutriments(Nutriments result, Nutriments total, BigDecimal totalYield,
+    private void setUnitNutriments(Nutriments result, NutrientVector total, long totalYield,
                                   UnitType unitType) {
-        BigDecimal multiplier = unitType == UnitType.GRAMS ? BigDecimal.valueOf(100)
-                : BigDecimal.ONE;
-        BigDecimal calories = perUnit(total.getCalories(), totalYield, multiplier);
-        BigDecimal carbohydrates = perUnit(total.getCarbohydrates(), totalYield, multiplier);
-        BigDecimal fat = perUnit(total.getFat(), totalYield, multiplier);
-        BigDecimal protein = perUnit(total.getProtein(), totalYield, multiplier);
+        long multiplier = unitType == UnitType.GRAMS ? 100 : 1;
+        NutrientVector perUnit = total.multiplyDivide(multiplier, totalYield, NUTRIENT_SCALE);
         if (unitType == UnitType.GRAMS) {
-            result.setCaloriesPer100(calories);
-            result.setCarbohydratesPer100(carbohydrates);
-            result.setFatPer100(fat);
-            result.setProteinPer100(protein);
+            result.setCaloriesPer100(perUnit.getCalories());
+            result.setCarbohydratesPer100(perUnit.getCarbohydrates());
+            result.setFatPer100(perUnit.getFat());
+            result.setProteinPer100(perUnit.getProtein());
         } else {
-            result.setCaloriesPerPiece(calories);
-            result.setCarbohydratesPerPiece(carbohydrates);
-            result.setFatPerPiece(fat);
-            result.setProteinPerPiece(protein);
+            result.setCaloriesPerPiece(perUnit.getCalories());
+            result.setCarbohydratesPerPiece(perUnit.getCarbohydrates());
+            result.setFatPerPiece(perUnit.getFat());
+            result.setProteinPerPiece(perUnit.getProtein());
         }
     }
 
-    private BigDecimal perUnit(BigDecimal total, BigDecimal totalYield, BigDecimal multiplier) {
-        return scale(safe(total).multiply(multiplier)
-                .divide(totalYield, NUTRIENT_SCALE, RoundingMode.HALF_UP));
-    }
-
-    private BigDecimal scale(BigDecimal value) {
-        return safe(value).setScale(NUTRIENT_SCALE, RoundingMode.HALF_UP);
-    }
-
     private BigDecimal safe(BigDecimal value) {
         return value != null ? value : BigDecimal.ZERO;
     }
@@ -0,0 +1,135 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "app.planning.rollover.enabled", havingValue = "true")
+public class PlannedIntakeRolloverService {
+    private static final String LOCK_KEY = "lock:planning:rollover";
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] "
+                    + "then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] "
+                    + "then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private final IntakeRepository intakeRepository;
+    private final IntakeService intakeService;
+    private final StringRedisTemplate redisTemplate;
+    private final int chunkSize;
+    private final Duration chunkPause;
+    private final Duration lockTtl;
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public PlannedIntakeRolloverService(
+            IntakeRepository intakeRepository,
+            IntakeService intakeService,
+            StringRedisTemplate redisTemplate,
+            @Value("${app.planning.rollover.chunk-size:500}") int chunkSize,
+            @Value("${app.planning.rollover.chunk-pause:PT0.2S}") Duration chunkPause,
+            @Value("${app.planning.rollover.lock-ttl:PT30M}") Duration lockTtl) {
+        this.intakeRepository = intakeRepository;
+        this.intakeService = intakeService;
+        this.redisTemplate = redisTemplate;
+        this.chunkSize = chunkSize;
+        this.chunkPause = chunkPause;
+        this.lockTtl = lockTtl;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setThreadNamePrefix("planned-rollover-");
+        executor.initialize();
+    }
+
+    @Scheduled(cron = "${app.planning.rollover.cron:0 15 0 * * *}")
+    public void rolloverYesterday() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Previous planned intake rollover is still running, skipping");
+            return;
+        }
+        LocalDate date = LocalDate.now().minusDays(1);
+        executor.execute(() -> {
+            try {
+                rollover(date);
+            } catch (RuntimeException exception) {
+                log.error("Planned intake rollover for {} failed", date, exception);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public int rollover(LocalDate date) {
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(LOCK_KEY, token, lockTtl))) {
+            log.info("Planned intake rollover for {} is running on another node", date);
+            return 0;
+        }
+        try {
+            int consumed = 0;
+            int users = 0;
+            Long afterUserId = Long.MIN_VALUE;
+            List<Long> userIds;
+            do {
+                userIds = intakeRepository.findUserIdsWithPlannedAfter(
+                        date, afterUserId, PageRequest.of(0, chunkSize));
+                if (userIds.isEmpty()) {
+                    break;
+                }
+                consumed += intakeService.rolloverPlanned(date, userIds);
+                users += userIds.size();
+                afterUserId = userIds.getLast();
+            } while (userIds.size() == chunkSize && renewLock(date, token) && pause());
+            log.info("Rolled over {} planned intakes for {} users on {}", consumed, users, date);
+            return consumed;
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(LOCK_KEY), token);
+        }
+    }
+
+    private boolean renewLock(LocalDate date, String token) {
+        Long renewed = redisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(LOCK_KEY), token,
+                String.valueOf(lockTtl.toMillis()));
+        if (renewed == null || renewed == 0) {
+            log.warn("Lost planned intake rollover lock for {}, stopping", date);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(chunkPause.toMillis());
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            log.warn("Planned intake rollover interrupted between chunks");
+            return false;
+        }
+    }
+}
@@ -3,22 +3,33 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.service;
 import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ShoppingListItemDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ShoppingListSnapshotDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
 import com.olehprukhnytskyi.util.UnitType;
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class PlanningService {
@@ -26,6 +37,7 @@ public class PlanningService {
     private final IntakeRepository intakeRepository;
     private final MealTemplateRepository templateRepository;
     private final PlanningEntitlementService entitlementService;
+    private final CacheManager cacheManager;
 
     @Transactional(readOnly = true)
     public List<ShoppingListItemDto> shoppingList(Long userId, LocalDate from, LocalDate to) {
@@ -37,11 +49,36 @@ public class PlanningService {
             throw new BadRequestException(CommonErrorCode.BAD_REQUEST,
                     "Shopping list range must be within 14 days");
         }
+        ShoppingListSnapshotDto cached = getCachedShoppingList(userId);
+        if (cached != null && cached.covers(safeFrom, safeTo)) {
+            return cached.getItems();
+        }
+        List<ShoppingListItemDto> result = buildShoppingList(userId, safeFrom, safeTo);
+        cacheShoppingList(userId, ShoppingListSnapshotDto.builder()
+                .from(safeFrom).to(safeTo).items(result).build());
+        return result;
+    }
+
+    private List<ShoppingListItemDto> buildShoppingList(Long userId, LocalDate from,
+                                                        LocalDate to) {
+        List<Intake> planned = intakeRepository.findByUserIdAndDateBetweenAndStatus(
+                userId, from, to, IntakeStatus.PLANNED);
+        Set<Long> recipeIds = new LinkedHashSet<>();
+        planned.forEach(intake -> {
+            Long recipeId = parseRecipeId(intake.getFoodId());
+            if (recipeId != null) {
+                recipeIds.add(recipeId);
+            }
+        });
+        Map<Long, MealTemplate> recipes = recipeIds.isEmpty() ? Map.of()
+                : templateRepository.findAllByUserIdAndIdIn(userId, recipeIds).stream()
+                        .filter(MealTemplate::isRecipe)
+                        .collect(Collectors.toMap(MealTemplate::getId, Function.identity(),
+                                (first, ignored) -> first));
         Map<String, ShoppingListItemDto> generalItems = new LinkedHashMap<>();
         Map<Long, RecipeGroup> recipeGroups = new LinkedHashMap<>();
-        for (Intake intake : intakeRepository.findByUserIdAndDateBetweenAndStatus(
-                userId, safeFrom, safeTo, IntakeStatus.PLANNED)) {
-            if (!expandRecipe(userId, intake, recipeGroups)) {
+        for (Intake intake : planned) {
+            if (!expandRecipe(intake, recipes, recipeGroups)) {
                 addGeneral(generalItems, intake.getFoodId(), intake.getFoodName(),
                         intake.getAmount(), intake.getUnitType());
             }
@@ -59,31 +96,57 @@ public class PlanningService {
         return result;
     }
 
-    private boolean expandRecipe(Long userId, Intake intake,
+    private boolean expandRecipe(Intake intake, Map<Long, MealTemplate> recipes,
                                  Map<Long, RecipeGroup> recipeGroups) {
-        if (intake.getFoodId() == null || !intake.getFoodId().startsWith(RECIPE_PREFIX)) {
+        Long templateId = parseRecipeId(intake.getFoodId());
+        MealTemplate template = templateId == null ? null : recipes.get(templateId);
+        if (template == null || template.getItems() == null
+                || template.getTotalYieldAmount() == null
+                || template.getTotalYieldAmount() <= 0) {
             return false;
         }
+        String recipeName = template.getName() == null || template.getName().isBlank()
+                ? intake.getFoodName() : template.getName();
+        RecipeGroup group = recipeGroups.computeIfAbsent(templateId,
+                ignored -> new RecipeGroup(templateId, recipeName));
+        double ratio = intake.getAmount() / (double) template.getTotalYieldAmount();
+        for (MealTemplateItem item : template.getItems()) {
+            group.add(item, item.getAmount() * ratio);
+        }
+        return true;
+    }
+
+    private Long parseRecipeId(String foodId) {
+        if (foodId == null || !foodId.startsWith(RECIPE_PREFIX)) {
+            return null;
+        }
         try {
-            Long templateId = Long.valueOf(intake.getFoodId().substring(RECIPE_PREFIX.length()));
-            MealTemplate template = templateRepository.findByIdAndUserId(templateId, userId)
-                    .filter(MealTemplate::isRecipe).orElse(null);
-            if (template == null || template.getItems() == null
-                    || template.getTotalYieldAmount() == null
-                    || template.getTotalYieldAmount() <= 0) {
-                return false;
-            }
-            String recipeName = template.getName() == null || template.getName().isBlank()
-                    ? intake.getFoodName() : template.getName();
-            RecipeGroup group = recipeGroups.computeIfAbsent(templateId,
-                    ignored -> new RecipeGroup(templateId, recipeName));
-            double ratio = intake.getAmount() / (double) template.getTotalYieldAmount();
-            for (MealTemplateItem item : template.getItems()) {
-                group.add(item, item.getAmount() * ratio);
-            }
-            return true;
+            return Long.valueOf(foodId.substring(RECIPE_PREFIX.length()));
         } catch (NumberFormatException ignored) {
-            return false;
+            return null;
+        }
+    }
+
+    private ShoppingListSnapshotDto getCachedShoppingList(Long userId) {
+        try {
+            Cache cache = cacheManager.getCache(CacheConstants.SHOPPING_LISTS);
+            return cache != null
+                    ? cache.get(CacheKeys.user(userId), ShoppingListSnapshotDto.class)
+                    : null;
+        } catch (Exception e) {
+            log.error("Failed to read cached shopping list for userId={}", userId, e);
+            return null;
+        }
+    }
+
+    private void cacheShoppingList(Long userId, ShoppingListSnapshotDto snapshot) {
+        try {
+            Cache cache = cacheManager.getCache(CacheConstants.SHOPPING_LISTS);
+            if (cache != null) {
+                cache.put(CacheKeys.user(userId), snapshot);
+            }
+        } catch (Exception e) {
+            log.error("Failed to cache shopping list for userId={}", userId, e);
         }
     }
 
@@ -0,0 +1,240 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.RedisCircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.AfterCommit;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Version counters used as strong ETags. Writers bump them after commit and readers take
+ * the version before loading data, so a tag never claims newer data than its body. A bump
+ * that cannot reach Redis bumps the user's epoch once Redis answers again.
+ */
+@Slf4j
+@Service
+public class ResponseVersionService {
+    private static final String KEY_PREFIX = "etag:version:";
+    private static final String LEGACY_SUFFIX = "-legacy";
+    private static final int MAX_MISSED_EPOCH_USERS = 100_000;
+    private static final RedisScript<String> READ_SCRIPT = new DefaultRedisScript<>("""
+            local versions = {}
+            for i, key in ipairs(KEYS) do
+                local version = redis.call('get', key)
+                if not version then
+                    version = ARGV[1]
+                    redis.call('set', key, version, 'px', ARGV[2])
+                end
+                versions[i] = version
+            end
+            return table.concat(versions, '.')
+            """, String.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> BUMP_SCRIPT = new DefaultRedisScript<>("""
+            local versions = {}
+            for i, key in ipairs(KEYS) do
+                if redis.call('exists', key) == 1 then
+                    versions[i] = redis.call('incr', key)
+                    redis.call('pexpire', key, ARGV[2])
+                else
+                    redis.call('set', key, ARGV[1], 'px', ARGV[2])
+                    versions[i] = tonumber(ARGV[1])
+                end
+            end
+            return versions
+            """, List.class);
+    private final Set<Long> missedEpochUsers = ConcurrentHashMap.newKeySet();
+    private final StringRedisTemplate redisTemplate;
+    private final IntakeDayCache intakeDayCache;
+    private final RedisCircuitBreaker circuitBreaker;
+    private final Duration ttl;
+
+    public ResponseVersionService(
+            StringRedisTemplate redisTemplate,
+            IntakeDayCache intakeDayCache,
+            RedisCircuitBreaker circuitBreaker,
+            @Value("${app.etag.version-ttl:P35D}") Duration ttl) {
+        this.redisTemplate = redisTemplate;
+        this.intakeDayCache = intakeDayCache;
+        this.circuitBreaker = circuitBreaker;
+        this.ttl = ttl;
+    }
+
+    public Version intakeDayVersion(Long userId, LocalDate date) {
+        String version = read(epochKey(userId),
+                date == null ? intakesKey(userId) : intakeDayKey(userId, date));
+        if (version == null) {
+            return null;
+        }
+        int separator = version.indexOf('.');
+        return new Version(Long.parseLong(version.substring(0, separator)),
+                Long.parseLong(version.substring(separator + 1)));
+    }
+
+    public String intakeDayEtag(Version version, boolean supportsPlanning) {
+        if (version == null) {
+            return null;
+        }
+        String tag = version.epoch() + "." + version.counter();
+        return etag(supportsPlanning ? tag : tag + LEGACY_SUFFIX);
+    }
+
+    public String readModelEtag(long modelVersion, boolean supportsPlanning) {
+        String tag = "rm." + modelVersion;
+        return etag(supportsPlanning ? tag : tag + LEGACY_SUFFIX);
+    }
+
+    public String intakesEtag(Long userId) {
+        return etag(read(epochKey(userId), intakesKey(userId)));
+    }
+
+    public String templatesEtag(Long userId) {
+        return etag(read(epochKey(userId), templatesKey(userId)));
+    }
+
+    public boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || etag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void intakesChanged(Long userId, Collection<LocalDate> dates) {
+        intakesChanged(userId, dates, null);
+    }
+
+    public void intakesChanged(Long userId, Collection<LocalDate> dates, IntakeDayDelta delta) {
+        List<String> keys = new ArrayList<>();
+        keys.add(intakesKey(userId));
+        List<LocalDate> days = dates == null ? List.of() : new LinkedHashSet<>(dates).stream()
+                .filter(Objects::nonNull)
+                .toList();
+        if (dates == null) {
+            keys.add(epochKey(userId));
+        } else {
+            days.forEach(date -> keys.add(intakeDayKey(userId, date)));
+        }
+        AfterCommit.run(() -> {
+            List<?> versions = bump(userId, keys);
+            if (delta == null || versions == null || days.isEmpty()) {
+                return;
+            }
+            Map<LocalDate, Long> dayVersions = new LinkedHashMap<>();
+            for (int i = 0; i < days.size(); i++) {
+                dayVersions.put(days.get(i), ((Number) versions.get(i + 1)).longValue());
+            }
+            intakeDayCache.apply(userId, dayVersions, delta);
+        });
+    }
+
+    public void templatesChanged(Long userId) {
+        AfterCommit.run(() -> bump(userId, List.of(templatesKey(userId))));
+    }
+
+    public void userPurged(Long userId) {
+        bump(userId, List.of(epochKey(userId)));
+    }
+
+    private String read(String... keys) {
+        try {
+            return circuitBreaker.execute(() -> {
+                bumpMissedEpochs();
+                return redisTemplate.execute(READ_SCRIPT, List.of(keys), now(), ttlMillis());
+            }, () -> null);
+        } catch (RuntimeException exception) {
+            log.warn("Failed to read response versions keys={}", List.of(keys), exception);
+            return null;
+        }
+    }
+
+    private List<?> bump(Long userId, List<String> keys) {
+        try {
+            return circuitBreaker.execute(() -> {
+                bumpMissedEpochs();
+                return redisTemplate.execute(BUMP_SCRIPT, keys, now(), ttlMillis());
+            }, () -> {
+                missedBump(userId);
+                return null;
+            });
+        } catch (RuntimeException exception) {
+            log.error("Failed to bump response versions keys={}", keys, exception);
+            missedBump(userId);
+            return null;
+        }
+    }
+
+    private void missedBump(Long userId) {
+        if (missedEpochUsers.size() < MAX_MISSED_EPOCH_USERS) {
+            missedEpochUsers.add(userId);
+        } else {
+            log.error("Dropping missed response version bump for userId={}", userId);
+        }
+    }
+
+    private void bumpMissedEpochs() {
+        if (missedEpochUsers.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = List.copyOf(missedEpochUsers);
+        redisTemplate.execute(BUMP_SCRIPT, userIds.stream().map(this::epochKey).toList(),
+                now(), ttlMillis());
+        userIds.forEach(missedEpochUsers::remove);
+        log.info("Bumped response version epochs of {} users missed while Redis was down",
+                userIds.size());
+    }
+
+    private String now() {
+        return String.valueOf(System.currentTimeMillis());
+    }
+
+    private String ttlMillis() {
+        return String.valueOf(ttl.toMillis());
+    }
+
+    private String etag(String version) {
+        return version == null ? null : "\"" + version + "\"";
+    }
+
+    private String epochKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId);
+    }
+
+    private String intakesKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":intakes";
+    }
+
+    private String intakeDayKey(Long userId, LocalDate date) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":intakes:" + date;
+    }
+
+    private String templatesKey(Long userId) {
+        return KEY_PREFIX + CacheKeys.user(userId) + ":templates";
+    }
+
+    public record Version(long epoch, long counter) {
+    }
+}
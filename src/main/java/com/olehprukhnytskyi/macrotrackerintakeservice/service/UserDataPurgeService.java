@@ -0,0 +1,275 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCache;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.UserPurgeRequest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.UserPurgeRequestRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.redis.IntakeReadModelRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheKeys;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Purges deleted users' data in throttled batches on its own workers. Pending purges and
+ * their checkpoints live in {@code user_purge_request}, so a Redis flush cannot lose them;
+ * Redis only holds the per-user lock, which is renewed after every batch.
+ */
+@Slf4j
+@Service
+public class UserDataPurgeService {
+    private static final String LOCK_KEY_PREFIX = "lock:purge:user:";
+    private static final int USERS_PER_WORKER_POLL = 16;
+    private static final RedisScript<Long> RELEASE_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] "
+                    + "then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+    private static final RedisScript<Long> RENEW_LOCK_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] "
+                    + "then return redis.call('pexpire', KEYS[1], ARGV[2]) else return 0 end",
+            Long.class);
+    private final IntakeRepository intakeRepository;
+    private final MealTemplateRepository templateRepository;
+    private final MealTemplateApplicationRepository applicationRepository;
+    private final UserPurgeRequestRepository purgeRequestRepository;
+    private final CacheManager cacheManager;
+    private final CacheInvalidationProducer cacheInvalidationProducer;
+    private final StringRedisTemplate redisTemplate;
+    private final ResponseVersionService responseVersionService;
+    private final IntakeReadModelRepository readModelRepository;
+    private final int batchSize;
+    private final int rowsPerSecond;
+    private final Duration lockTtl;
+    private final int pollSize;
+    private final ThreadPoolTaskExecutor executor;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private long nextBatchAtNanos;
+
+    public UserDataPurgeService(
+            IntakeRepository intakeRepository,
+            MealTemplateRepository templateRepository,
+            MealTemplateApplicationRepository applicationRepository,
+            UserPurgeRequestRepository purgeRequestRepository,
+            CacheManager cacheManager,
+            CacheInvalidationProducer cacheInvalidationProducer,
+            StringRedisTemplate redisTemplate,
+            ResponseVersionService responseVersionService,
+            IntakeReadModelRepository readModelRepository,
+            @Value("${app.user-purge.batch-size:1000}") int batchSize,
+            @Value("${app.user-purge.rows-per-second:5000}") int rowsPerSecond,
+            @Value("${app.user-purge.lock-ttl:PT10M}") Duration lockTtl,
+            @Value("${app.user-purge.concurrency:4}") int concurrency) {
+        this.intakeRepository = intakeRepository;
+        this.templateRepository = templateRepository;
+        this.applicationRepository = applicationRepository;
+        this.purgeRequestRepository = purgeRequestRepository;
+        this.cacheManager = cacheManager;
+        this.cacheInvalidationProducer = cacheInvalidationProducer;
+        this.redisTemplate = redisTemplate;
+        this.responseVersionService = responseVersionService;
+        this.readModelRepository = readModelRepository;
+        this.batchSize = batchSize;
+        this.rowsPerSecond = rowsPerSecond;
+        this.lockTtl = lockTtl;
+        this.pollSize = concurrency * USERS_PER_WORKER_POLL;
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setThreadNamePrefix("user-purge-");
+        executor.initialize();
+    }
+
+    @Transactional
+    public void schedule(Collection<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        purgeRequestRepository.findExistingUserIds(requested).forEach(requested::remove);
+        Instant now = Instant.now();
+        purgeRequestRepository.saveAll(requested.stream()
+                .map(userId -> UserPurgeRequest.builder()
+                        .userId(userId)
+                        .requestedAt(now)
+                        .build())
+                .toList());
+    }
+
+    @Scheduled(fixedDelayString = "${app.user-purge.poll-interval:PT5S}")
+    public void purgePending() {
+        if (inFlight.size() >= pollSize) {
+            return;
+        }
+        List<Long> pending = purgeRequestRepository.findNextUserIds(PageRequest.of(0, pollSize));
+        for (Long userId : pending) {
+            if (inFlight.add(userId)) {
+                executor.execute(() -> {
+                    try {
+                        purgeQuietly(userId);
+                    } finally {
+                        inFlight.remove(userId);
+                    }
+                });
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public boolean purge(Long userId) {
+        String lockKey = LOCK_KEY_PREFIX + userId;
+        String token = UUID.randomUUID().toString();
+        if (!Boolean.TRUE.equals(redisTemplate.opsForValue()
+                .setIfAbsent(lockKey, token, lockTtl))) {
+            log.debug("Data purge for userId={} is running on another node", userId);
+            return false;
+        }
+        try {
+            UserPurgeRequest request = purgeRequestRepository.findById(userId).orElse(null);
+            if (request == null) {
+                log.debug("Data purge for userId={} is already completed", userId);
+                return true;
+            }
+            Stage[] stages = Stage.values();
+            Stage resumeFrom = request.getStage() == null
+                    ? stages[0] : Stage.valueOf(request.getStage());
+            log.info("Purging data for userId={} from stage {}", userId, resumeFrom);
+            long deleted = request.getDeleted();
+            for (int i = resumeFrom.ordinal(); i < stages.length; i++) {
+                long stageDeleted = purgeStage(userId, stages[i], lockKey, token);
+                if (stageDeleted < 0) {
+                    return false;
+                }
+                deleted += stageDeleted;
+            }
+            evictCaches(userId);
+            purgeRequestRepository.deleteById(userId);
+            log.info("Data purge completed for userId={}, deleted {} rows", userId, deleted);
+            return true;
+        } finally {
+            redisTemplate.execute(RELEASE_LOCK_SCRIPT, List.of(lockKey), token);
+        }
+    }
+
+    private void purgeQuietly(Long userId) {
+        try {
+            purge(userId);
+        } catch (RuntimeException exception) {
+            log.error("Data purge failed for userId={}, will resume from checkpoint",
+                    userId, exception);
+        }
+    }
+
+    private long purgeStage(Long userId, Stage stage, String lockKey, String token) {
+        purgeRequestRepository.updateStage(userId, stage.name());
+        long total = 0;
+        int deleted;
+        do {
+            deleted = deleteBatch(stage, userId);
+            if (deleted > 0) {
+                purgeRequestRepository.addDeleted(userId, deleted);
+                total += deleted;
+                if (!renewLock(userId, lockKey, token) || !throttle(deleted)) {
+                    return -1;
+                }
+            }
+        } while (deleted >= batchSize);
+        return total;
+    }
+
+    private boolean renewLock(Long userId, String lockKey, String token) {
+        Long renewed = redisTemplate.execute(RENEW_LOCK_SCRIPT, List.of(lockKey), token,
+                String.valueOf(lockTtl.toMillis()));
+        if (renewed == null || renewed == 0) {
+            log.warn("Lost data purge lock for userId={}, will resume from checkpoint",
+                    userId);
+            return false;
+        }
+        return true;
+    }
+
+    private boolean throttle(int deleted) {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long startAt = Math.max(now, nextBatchAtNanos);
+            nextBatchAtNanos = startAt + deleted * 1_000_000_000L / rowsPerSecond;
+            waitNanos = startAt - now;
+        }
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            log.warn("Data purge interrupted, will resume from checkpoint");
+            return false;
+        }
+    }
+
+    private void evictCaches(Long userId) {
+        evictIndexed(CacheConstants.USER_INTAKES, userId);
+        evictIndexed(CacheConstants.MEAL_TEMPLATE_PAGES, userId);
+        for (String name : List.of(CacheConstants.MEAL_TEMPLATES,
+                CacheConstants.MEAL_TEMPLATE_SUMMARIES, CacheConstants.SHOPPING_LISTS)) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache != null) {
+                cache.evict(CacheKeys.user(userId));
+            }
+        }
+        cacheInvalidationProducer.resetVersion(userId);
+        responseVersionService.userPurged(userId);
+        readModelRepository.delete(userId);
+    }
+
+    private void evictIndexed(String cacheName, Long userId) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache instanceof ResilientRedisCache redisCache) {
+            redisCache.evictUser(userId);
+        } else if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    private int deleteBatch(Stage stage, Long userId) {
+        return switch (stage) {
+            case TEMPLATE_APPLICATIONS -> applicationRepository.deleteBatchByUserId(userId,
+                    batchSize);
+            case INTAKES -> intakeRepository.deleteBatchByUserId(userId, batchSize);
+            case TEMPLATE_ITEMS -> templateRepository.deleteItemBatchByUserId(userId, batchSize);
+            case TEMPLATES -> templateRepository.deleteBatchByUserId(userId, batchSize);
+        };
+    }
+
+    private enum Stage {
+        TEMPLATE_APPLICATIONS,
+        INTAKES,
+        TEMPLATE_ITEMS,
+        TEMPLATES
+    }
+}
@@ -2,12 +2,23 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.NutrientVector;
 import com.olehprukhnytskyi.util.UnitType;
 
 public interface NutrientCalculationStrategy {
-    void calculate(Nutriments baseNutriments, int amount);
+    NutrientVector calculate(NutrientVector perUnit, int amount);
 
-    void recalculateItem(MealTemplateItem item, int newAmount);
+    default void calculate(Nutriments baseNutriments, int amount) {
+        calculate(perUnit(baseNutriments), amount).applyTo(baseNutriments);
+    }
+
+    default void recalculateItem(MealTemplateItem item, int newAmount) {
+        Nutriments nutriments = item.getNutriments();
+        calculate(NutrientVector.per100(nutriments), newAmount).applyTo(nutriments);
+        item.setAmount(newAmount);
+    }
+
+    NutrientVector perUnit(Nutriments nutriments);
 
     UnitType getSupportedType();
 }
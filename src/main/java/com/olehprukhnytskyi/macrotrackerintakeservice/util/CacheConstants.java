@@ -2,7 +2,11 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.util;
 
 public final class CacheConstants {
     public static final String MEAL_TEMPLATES = "meal:templates";
+    public static final String MEAL_TEMPLATE_SUMMARIES = "meal:template-summaries";
+    public static final String MEAL_TEMPLATE_PAGES = "meal:template-pages";
     public static final String USER_INTAKES = "user:intakes";
+    public static final String SHOPPING_LISTS = "planning:shopping-lists";
+    public static final String USER_KEY = "'{' + #userId + '}'";
 
     private CacheConstants() {
     }
@@ -0,0 +1,34 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.util;
+
+import java.time.LocalDate;
+
+/**
+ * Per-user Redis keys. The user id is wrapped in a {@code {userId}} hash tag, so every key
+ * of one user, including the user's key index and version counters, lands in the same
+ * Redis Cluster slot and can be read or deleted with a single multi-key command.
+ */
+public final class CacheKeys {
+    private CacheKeys() {
+    }
+
+    public static String user(Long userId) {
+        return "{" + userId + "}";
+    }
+
+    public static String userDay(Long userId, LocalDate date) {
+        return user(userId) + ":" + date;
+    }
+
+    public static Long userIdOf(Object key) {
+        String value = String.valueOf(key);
+        int end = value.indexOf('}');
+        if (!value.startsWith("{") || end < 2) {
+            return null;
+        }
+        try {
+            return Long.valueOf(value.substring(1, end));
+        } catch (NumberFormatException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.util;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import java.nio.ByteBuffer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * Stores {@link CachedDayResponse} as a flat binary record so a cache hit only copies the
+ * pre-rendered JSON out of the Redis reply. Values written in any other format (such as
+ * JSON lists cached by older releases) read back as a miss.
+ */
+public class CachedDayResponseSerializer implements RedisSerializer<CachedDayResponse> {
+    public static final int VERSION_OFFSET = 2 + Long.BYTES;
+    private static final byte FORMAT = 3;
+    private static final byte SHARED_LEGACY = 1;
+    private static final int HEADER_SIZE = VERSION_OFFSET + Long.BYTES;
+
+    @Override
+    public byte[] serialize(CachedDayResponse value) {
+        if (value == null) {
+            return null;
+        }
+        boolean shared = value.isLegacyShared();
+        int size = HEADER_SIZE + Integer.BYTES + value.getBody().length;
+        if (!shared) {
+            size += Integer.BYTES + value.getLegacyBody().length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size)
+                .put(FORMAT)
+                .put(shared ? SHARED_LEGACY : 0)
+                .putLong(value.getEpoch())
+                .putLong(value.getVersion());
+        putBytes(buffer, value.getBody());
+        if (!shared) {
+            putBytes(buffer, value.getLegacyBody());
+        }
+        return buffer.array();
+    }
+
+    @Override
+    public CachedDayResponse deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != FORMAT) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 2, bytes.length - 2);
+        long epoch = buffer.getLong();
+        long version = buffer.getLong();
+        byte[] body = getBytes(buffer);
+        return new CachedDayResponse(epoch, version, body,
+                bytes[1] == SHARED_LEGACY ? body : getBytes(buffer));
+    }
+
+    public static byte[] encodeVersion(long version) {
+        return ByteBuffer.allocate(Long.BYTES).putLong(version).array();
+    }
+
+    private void putBytes(ByteBuffer buffer, byte[] bytes) {
+        buffer.putInt(bytes.length).put(bytes);
+    }
+
+    private byte[] getBytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
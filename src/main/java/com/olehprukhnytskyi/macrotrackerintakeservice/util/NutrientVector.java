@@ -0,0 +1,176 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.util;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Nutrients as unscaled longs that yield exactly what the equivalent BigDecimal arithmetic
+ * would, scale included; components too wide for a long fall back to BigDecimal.
+ */
+public final class NutrientVector {
+    private static final int SIZE = 4;
+    private static final int CALORIES = 0;
+    private static final int CARBOHYDRATES = 1;
+    private static final int FAT = 2;
+    private static final int PROTEIN = 3;
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L,
+            100_000_000L, 1_000_000_000L, 10_000_000_000L, 100_000_000_000L,
+            1_000_000_000_000L, 10_000_000_000_000L, 100_000_000_000_000L,
+            1_000_000_000_000_000L, 10_000_000_000_000_000L, 100_000_000_000_000_000L,
+            1_000_000_000_000_000_000L};
+    private final long[] unscaled = new long[SIZE];
+    private final int[] scales = new int[SIZE];
+    private BigDecimal[] wide;
+    private int missing;
+
+    private NutrientVector() {
+    }
+
+    public static NutrientVector of(BigDecimal calories, BigDecimal carbohydrates,
+                                    BigDecimal fat, BigDecimal protein) {
+        NutrientVector vector = new NutrientVector();
+        vector.set(CALORIES, calories);
+        vector.set(CARBOHYDRATES, carbohydrates);
+        vector.set(FAT, fat);
+        vector.set(PROTEIN, protein);
+        return vector;
+    }
+
+    public static NutrientVector per100(Nutriments nutriments) {
+        return of(nutriments.getCaloriesPer100(), nutriments.getCarbohydratesPer100(),
+                nutriments.getFatPer100(), nutriments.getProteinPer100());
+    }
+
+    public static NutrientVector perPiece(Nutriments nutriments) {
+        return of(nutriments.getCaloriesPerPiece(), nutriments.getCarbohydratesPerPiece(),
+                nutriments.getFatPerPiece(), nutriments.getProteinPerPiece());
+    }
+
+    public static long divideHalfUp(long dividend, long divisor) {
+        if (dividend == Long.MIN_VALUE || divisor == Long.MIN_VALUE) {
+            throw new ArithmeticException("long overflow");
+        }
+        long quotient = dividend / divisor;
+        long remainder = Math.abs(dividend % divisor);
+        if (remainder >= Math.abs(divisor) - remainder) {
+            quotient += Long.signum(dividend) * Long.signum(divisor);
+        }
+        return quotient;
+    }
+
+    public NutrientVector multiply(int factor) {
+        NutrientVector result = new NutrientVector();
+        for (int i = 0; i < SIZE; i++) {
+            if (isMissing(i)) {
+                continue;
+            }
+            if (!isWide(i)) {
+                try {
+                    result.unscaled[i] = Math.multiplyExact(unscaled[i], factor);
+                    result.scales[i] = scales[i];
+                    continue;
+                } catch (ArithmeticException ignored) {
+                    // falls through to BigDecimal
+                }
+            }
+            result.set(i, get(i).multiply(BigDecimal.valueOf(factor)));
+        }
+        return result;
+    }
+
+    public NutrientVector multiplyDivide(long multiplier, long divisor, int scale) {
+        NutrientVector result = new NutrientVector();
+        for (int i = 0; i < SIZE; i++) {
+            if (isMissing(i)) {
+                continue;
+            }
+            if (!isWide(i)) {
+                try {
+                    result.unscaled[i] = scaledQuotient(unscaled[i], scales[i],
+                            multiplier, divisor, scale);
+                    result.scales[i] = scale;
+                    continue;
+                } catch (ArithmeticException ignored) {
+                    // falls through to BigDecimal
+                }
+            }
+            result.set(i, get(i).multiply(BigDecimal.valueOf(multiplier))
+                    .divide(BigDecimal.valueOf(divisor), scale, RoundingMode.HALF_UP));
+        }
+        return result;
+    }
+
+    public void applyTo(Nutriments nutriments) {
+        nutriments.setCalories(getCalories());
+        nutriments.setCarbohydrates(getCarbohydrates());
+        nutriments.setFat(getFat());
+        nutriments.setProtein(getProtein());
+    }
+
+    public BigDecimal getCalories() {
+        return get(CALORIES);
+    }
+
+    public BigDecimal getCarbohydrates() {
+        return get(CARBOHYDRATES);
+    }
+
+    public BigDecimal getFat() {
+        return get(FAT);
+    }
+
+    public BigDecimal getProtein() {
+        return get(PROTEIN);
+    }
+
+    private static long scaledQuotient(long value, int valueScale, long multiplier,
+                                       long divisor, int scale) {
+        if (Math.abs(scale - valueScale) >= POWERS_OF_TEN.length) {
+            throw new ArithmeticException("scale out of range");
+        }
+        long numerator = Math.multiplyExact(value, multiplier);
+        long denominator = divisor;
+        if (scale >= valueScale) {
+            numerator = Math.multiplyExact(numerator, POWERS_OF_TEN[scale - valueScale]);
+        } else {
+            denominator = Math.multiplyExact(denominator, POWERS_OF_TEN[valueScale - scale]);
+        }
+        return divideHalfUp(numerator, denominator);
+    }
+
+    private BigDecimal get(int index) {
+        if (isMissing(index)) {
+            return null;
+        }
+        return isWide(index) ? wide[index] : BigDecimal.valueOf(unscaled[index], scales[index]);
+    }
+
+    private boolean isMissing(int index) {
+        return (missing & 1 << index) != 0;
+    }
+
+    private boolean isWide(int index) {
+        return wide != null && wide[index] != null;
+    }
+
+    private void set(int index, BigDecimal value) {
+        if (value == null) {
+            missing |= 1 << index;
+            return;
+        }
+        BigInteger unscaledValue = value.unscaledValue();
+        if (value.scale() >= 0 && value.scale() < POWERS_OF_TEN.length
+                && unscaledValue.bitLength() < Long.SIZE) {
+            unscaled[index] = unscaledValue.longValue();
+            scales[index] = value.scale();
+            return;
+        }
+        if (wide == null) {
+            wide = new BigDecimal[SIZE];
+        }
+        wide[index] = value;
+    }
+}
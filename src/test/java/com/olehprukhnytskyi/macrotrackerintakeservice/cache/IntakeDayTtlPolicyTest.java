@@ -0,0 +1,38 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.Test;
+
+class IntakeDayTtlPolicyTest {
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private final IntakeDayTtlPolicy policy = new IntakeDayTtlPolicy(Duration.ofMinutes(30),
+            Duration.ofHours(6), Duration.ofDays(7),
+            Clock.fixed(Instant.parse("2025-06-15T10:00:00Z"), ZoneOffset.UTC));
+
+    @Test
+    void lifetimeDependsOnAgeOfDay() {
+        assertThat(policy.ttlFor(TODAY)).isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.ttlFor(TODAY.minusDays(1))).isEqualTo(Duration.ofMinutes(30));
+        assertThat(policy.ttlFor(TODAY.plusDays(1))).isEqualTo(Duration.ofHours(6));
+        assertThat(policy.ttlFor(TODAY.minusDays(2))).isEqualTo(Duration.ofDays(7));
+    }
+
+    @Test
+    void lifetimeIsReadFromCacheKey() {
+        assertThat(policy.getTimeToLive("{7}:2025-06-01", null)).isEqualTo(Duration.ofDays(7));
+        assertThat(policy.getTimeToLive("{7}:2025-06-20", null)).isEqualTo(Duration.ofHours(6));
+        assertThat(policy.getTimeToLive("{7}:null", null)).isEqualTo(Duration.ofMinutes(30));
+    }
+
+    @Test
+    void everyDayMustAlwaysBeRevalidated() {
+        assertThat(policy.cacheControl().getHeaderValue()).isEqualTo("no-cache, private");
+    }
+}
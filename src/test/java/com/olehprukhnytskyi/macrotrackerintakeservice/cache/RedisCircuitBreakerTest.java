@@ -0,0 +1,77 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+
+class RedisCircuitBreakerTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        circuitBreaker = new RedisCircuitBreaker(meterRegistry, 2, Duration.ofSeconds(5),
+                clock::get);
+    }
+
+    @Test
+    void opensAfterConsecutiveFailuresAndSkipsRedis() {
+        assertThat(fail()).isEqualTo("fallback");
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(fail()).isEqualTo("fallback");
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+
+        assertThat(succeed()).isEqualTo("fallback");
+
+        assertThat(calls).hasValue(2);
+        assertThat(meterRegistry.counter("cache.redis.short.circuited").count()).isEqualTo(1);
+    }
+
+    @Test
+    void probeAfterOpenDurationClosesOrReopens() {
+        fail();
+        fail();
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+
+        assertThat(fail()).isEqualTo("fallback");
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.OPEN);
+        assertThat(succeed()).isEqualTo("fallback");
+
+        clock.addAndGet(Duration.ofSeconds(5).toNanos());
+        assertThat(succeed()).isEqualTo("redis");
+        assertThat(circuitBreaker.getState()).isEqualTo(RedisCircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+    }
+
+    @Test
+    void nonRedisExceptionsPropagateWithoutOpening() {
+        assertThrows(IllegalArgumentException.class, () -> circuitBreaker.execute(() -> {
+            throw new IllegalArgumentException("bad value");
+        }, () -> "fallback"));
+
+        assertThat(circuitBreaker.getConsecutiveFailures()).isZero();
+    }
+
+    private String fail() {
+        return circuitBreaker.execute(() -> {
+            calls.incrementAndGet();
+            throw new RedisConnectionFailureException("down");
+        }, () -> "fallback");
+    }
+
+    private String succeed() {
+        return circuitBreaker.execute(() -> {
+            calls.incrementAndGet();
+            return "redis";
+        }, () -> "fallback");
+    }
+}
@@ -0,0 +1,115 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+
+class ResilientRedisCacheTest {
+    private final AtomicBoolean redisDown = new AtomicBoolean();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private RedisCacheWriter cacheWriter;
+    private UserCacheKeyIndex keyIndex;
+    private RedisCircuitBreaker circuitBreaker;
+
+    @BeforeEach
+    void setUp() {
+        Answer<Object> redis = invocation -> {
+            if (redisDown.get()) {
+                throw new RedisConnectionFailureException("down");
+            }
+            return RETURNS_DEFAULTS.answer(invocation);
+        };
+        cacheWriter = mock(RedisCacheWriter.class, redis);
+        keyIndex = mock(UserCacheKeyIndex.class, redis);
+        circuitBreaker = new RedisCircuitBreaker(meterRegistry, 3, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void serveStaleLocalCopyWhileRedisIsDown() {
+        ResilientRedisCache cache = cache(100);
+        cache.put("1", "templates");
+        redisDown.set(true);
+
+        assertThat(cache.get("1", String.class)).isEqualTo("templates");
+        assertThat(cache.get("2")).isNull();
+        assertThat(meterRegistry.counter("cache.local.fallback",
+                "cache", "templates", "result", "stale").count()).isEqualTo(1);
+    }
+
+    @Test
+    void cacheWithoutLocalCopyMissesWhileRedisIsDown() {
+        ResilientRedisCache cache = cache(0);
+        cache.put("1", "day");
+        redisDown.set(true);
+
+        assertThat(cache.get("1")).isNull();
+        assertThat(cache.get("1", () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void evictionsMissedWhileRedisIsDownAreReplayed() {
+        ResilientRedisCache cache = cache(100);
+        cache.put("1", "templates");
+        redisDown.set(true);
+
+        cache.evict("1");
+        assertThat(cache.get("1")).isNull();
+
+        redisDown.set(false);
+        clearInvocations(cacheWriter);
+        cache.get("2");
+
+        verify(cacheWriter).remove(eq("templates"),
+                aryEq("templates::1".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void userKeysAreTrackedInKeyIndex() {
+        ResilientRedisCache cache = cache(100);
+
+        cache.put("{7}:page", "templates");
+        cache.put("shared", "templates");
+
+        verify(keyIndex).add(7L, "templates::{7}:page");
+        verify(keyIndex, never()).add(anyLong(), eq("templates::shared"));
+    }
+
+    @Test
+    void userEvictionMissedWhileRedisIsDownIsReplayed() {
+        ResilientRedisCache cache = cache(100);
+        cache.put("{7}:page", "templates");
+        redisDown.set(true);
+
+        cache.evictUser(7L);
+        assertThat(cache.get("{7}:page")).isNull();
+
+        redisDown.set(false);
+        clearInvocations(keyIndex);
+        cache.get("{8}:page");
+
+        verify(keyIndex).evict(7L, "templates::");
+    }
+
+    private ResilientRedisCache cache(int localMaxEntries) {
+        return new ResilientRedisCache("templates", cacheWriter,
+                RedisCacheConfiguration.defaultCacheConfig(), circuitBreaker, keyIndex,
+                localMaxEntries, Duration.ofMinutes(10), meterRegistry);
+    }
+}
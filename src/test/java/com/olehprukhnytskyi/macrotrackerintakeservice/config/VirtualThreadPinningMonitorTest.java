@@ -0,0 +1,64 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class VirtualThreadPinningMonitorTest {
+    private final Object lock = new Object();
+
+    @Test
+    void pinIsAttributedToFirstKnownLibraryOnTheStack() {
+        assertThat(VirtualThreadPinningMonitor.sourceOf(List.of(
+                "org.h2.jdbc.JdbcPreparedStatement",
+                "com.zaxxer.hikari.pool.HikariProxyPreparedStatement",
+                "org.hibernate.sql.exec.internal.JdbcSelectExecutorStandardImpl",
+                "com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeService")))
+                .isEqualTo("hikari");
+        assertThat(VirtualThreadPinningMonitor.sourceOf(List.of(
+                "java.lang.Object",
+                "com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCache")))
+                .isEqualTo("application");
+        assertThat(VirtualThreadPinningMonitor.sourceOf(List.of("java.lang.Thread")))
+                .isEqualTo("other");
+    }
+
+    @Test
+    void blockingInsideMonitorIsRecorded() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor =
+                new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            Thread.ofVirtual().start(this::sleepWhileHoldingLock).join();
+
+            Timer pinned = null;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pinned == null && System.nanoTime() < deadline) {
+                pinned = meterRegistry.find("virtual.thread.pinned")
+                        .tag("source", "application")
+                        .timer();
+                Thread.sleep(100);
+            }
+            assertThat(pinned).isNotNull();
+            assertThat(pinned.totalTime(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50);
+        } finally {
+            monitor.stop();
+        }
+    }
+
+    private void sleepWhileHoldingLock() {
+        synchronized (lock) {
+            try {
+                Thread.sleep(60);
+            } catch (InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
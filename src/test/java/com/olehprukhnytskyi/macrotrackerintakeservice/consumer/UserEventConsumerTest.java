@@ -0,0 +1,66 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.verify;
+
+import com.olehprukhnytskyi.event.UserDeletedEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.UserDataPurgeService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.messaging.converter.MessageConversionException;
+
+@ExtendWith(MockitoExtension.class)
+class UserEventConsumerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private UserDataPurgeService userDataPurgeService;
+    private UserEventConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new UserEventConsumer(userDataPurgeService, meterRegistry);
+    }
+
+    @Test
+    void handleUserDeletedSchedulesWholeBatchAtOnce() {
+        consumer.handleUserDeleted(List.of(record(0, new UserDeletedEvent(1L)),
+                record(1, new UserDeletedEvent(2L))));
+
+        verify(userDataPurgeService).schedule(List.of(1L, 2L));
+        assertThat(meterRegistry.summary("user.deleted.batch.size").totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.timer("user.deleted.lag").count()).isEqualTo(2);
+    }
+
+    @Test
+    void handleUserDeletedFailsOnlyFromUnreadableRecord() {
+        List<ConsumerRecord<String, UserDeletedEvent>> records = List.of(
+                record(0, new UserDeletedEvent(1L)), record(1, null),
+                record(2, new UserDeletedEvent(3L)));
+
+        assertThatThrownBy(() -> consumer.handleUserDeleted(records))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        exception -> {
+                            assertThat(exception.getIndex()).isEqualTo(1);
+                            assertThat(exception.getCause())
+                                    .isInstanceOf(MessageConversionException.class);
+                        });
+        verify(userDataPurgeService).schedule(List.of(1L));
+    }
+
+    private ConsumerRecord<String, UserDeletedEvent> record(long offset, UserDeletedEvent event) {
+        return new ConsumerRecord<>("user-deleted", 0, offset, System.currentTimeMillis(),
+                TimestampType.CREATE_TIME, 0, 0, null, event, new RecordHeaders(),
+                Optional.empty());
+    }
+}
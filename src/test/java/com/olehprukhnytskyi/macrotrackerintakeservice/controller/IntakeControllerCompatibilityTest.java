@@ -2,44 +2,103 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
-import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.IntakeDayTtlPolicy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncItemDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.ClientVersionPolicy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeDayResponseService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeExportService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeService;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.PlanningService;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 
 class IntakeControllerCompatibilityTest {
     private IntakeService intakeService;
+    private IntakeDayResponseService intakeDayResponseService;
+    private ResponseVersionService responseVersionService;
+    private IntakeReadModelService intakeReadModelService;
     private IntakeController controller;
 
     @BeforeEach
     void setUp() {
         intakeService = mock(IntakeService.class);
-        controller = new IntakeController(intakeService, new ClientVersionPolicy(46),
-                mock(PlanningService.class));
+        intakeDayResponseService = mock(IntakeDayResponseService.class);
+        responseVersionService = mock(ResponseVersionService.class);
+        intakeReadModelService = mock(IntakeReadModelService.class);
+        when(intakeReadModelService.servingVersion(1L)).thenReturn(null);
+        controller = new IntakeController(intakeService, intakeDayResponseService,
+                responseVersionService, new ClientVersionPolicy(46), mock(PlanningService.class),
+                mock(IntakeExportService.class), new IntakeDayTtlPolicy(Duration.ofMinutes(30),
+                        Duration.ofHours(6), Duration.ofDays(7)), intakeReadModelService);
     }
 
     @Test
-    void legacyListHidesPlannedEntries() {
+    void legacyClientReceivesVariantWithoutPlannedEntries() {
         LocalDate date = LocalDate.now();
-        when(intakeService.findByDate(date, 1L)).thenReturn(List.of(
-                IntakeResponseDto.builder().id(1L).status(IntakeStatus.CONSUMED).build(),
-                IntakeResponseDto.builder().id(2L).status(IntakeStatus.PLANNED).build()));
+        byte[] body = "[1,2]".getBytes(StandardCharsets.UTF_8);
+        byte[] legacyBody = "[1]".getBytes(StandardCharsets.UTF_8);
+        ResponseVersionService.Version version = new ResponseVersionService.Version(1, 2);
+        when(responseVersionService.intakeDayVersion(1L, date)).thenReturn(version);
+        when(intakeDayResponseService.findByDate(date, 1L, version))
+                .thenReturn(new CachedDayResponse(1, 2, body, legacyBody));
+        when(responseVersionService.intakeDayEtag(version, false)).thenReturn("\"1.2-legacy\"");
+        when(responseVersionService.intakeDayEtag(version, true)).thenReturn("\"1.2\"");
 
-        List<IntakeResponseDto> legacy = controller.findByDate(1L, null, date).getBody();
-        List<IntakeResponseDto> current = controller.findByDate(1L, "46", date).getBody();
+        ResponseEntity<byte[]> legacy = controller.findByDate(1L, null, null, date);
+        ResponseEntity<byte[]> current = controller.findByDate(1L, "46", null, date);
 
-        assertThat(legacy).extracting(IntakeResponseDto::getId).containsExactly(1L);
-        assertThat(current).extracting(IntakeResponseDto::getId).containsExactly(1L, 2L);
+        assertThat(legacy.getBody()).isSameAs(legacyBody);
+        assertThat(legacy.getHeaders().getETag()).isEqualTo("\"1.2-legacy\"");
+        assertThat(current.getBody()).isSameAs(body);
+        assertThat(current.getHeaders().getETag()).isEqualTo("\"1.2\"");
+        assertThat(current.getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void matchingIfNoneMatchSkipsLoadingTheDay() {
+        LocalDate date = LocalDate.now();
+        ResponseVersionService.Version version = new ResponseVersionService.Version(1, 2);
+        when(responseVersionService.intakeDayVersion(1L, date)).thenReturn(version);
+        when(responseVersionService.intakeDayEtag(version, true)).thenReturn("\"1.2\"");
+        when(responseVersionService.matches("\"1.2\"", "\"1.2\"")).thenReturn(true);
+
+        ResponseEntity<byte[]> response = controller.findByDate(1L, "46", "\"1.2\"", date);
+
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"1.2\"");
+        verifyNoInteractions(intakeDayResponseService);
+    }
+
+    @Test
+    void upToDateReadModelServesDayUnderModelEtag() {
+        LocalDate date = LocalDate.now();
+        byte[] body = "[1,2]".getBytes(StandardCharsets.UTF_8);
+        when(intakeReadModelService.servingVersion(1L)).thenReturn(9L);
+        when(intakeReadModelService.findByDate(1L, date, 9L))
+                .thenReturn(new CachedDayResponse(0, 9, body, body));
+        when(responseVersionService.readModelEtag(9L, true)).thenReturn("\"rm.9\"");
+
+        ResponseEntity<byte[]> response = controller.findByDate(1L, "46", null, date);
+
+        assertThat(response.getBody()).isSameAs(body);
+        assertThat(response.getHeaders().getETag()).isEqualTo("\"rm.9\"");
+        verifyNoInteractions(intakeDayResponseService);
     }
 
     @Test
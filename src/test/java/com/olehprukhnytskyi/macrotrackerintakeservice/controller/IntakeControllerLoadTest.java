@@ -0,0 +1,170 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.AbstractIntegrationTest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.FoodDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeRequestDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.util.CustomHeaders;
+import com.olehprukhnytskyi.util.IntakePeriod;
+import com.olehprukhnytskyi.util.UnitType;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Creates intakes concurrently while a stub food service answers every lookup after
+ * {@link #FOOD_LATENCY}. Lookups go through the real Feign client. The Tomcat pool is
+ * capped at {@link #MAX_THREADS} threads, which on platform threads would bound throughput
+ * at {@code MAX_THREADS / FOOD_LATENCY}; on virtual threads the cap does not apply and the
+ * requests wait for the food service concurrently. Runs only with {@code -Pperf}.
+ */
+@Slf4j
+@Tag("perf")
+@TestPropertySource(properties = {
+        "spring.threads.virtual.enabled=true",
+        "server.tomcat.threads.max=" + IntakeControllerLoadTest.MAX_THREADS
+})
+class IntakeControllerLoadTest extends AbstractIntegrationTest {
+    static final int MAX_THREADS = 8;
+    private static final int REQUESTS = 96;
+    private static final Duration FOOD_LATENCY = Duration.ofMillis(300);
+    private static final AtomicInteger foodLookups = new AtomicInteger();
+    private static HttpServer foodService;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private IntakeRepository intakeRepository;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @DynamicPropertySource
+    static void foodService(DynamicPropertyRegistry registry) throws IOException {
+        byte[] food = new ObjectMapper().writeValueAsBytes(food());
+        foodService = HttpServer.create(new InetSocketAddress("localhost", 0), REQUESTS);
+        foodService.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        foodService.createContext("/api/foods/", exchange -> respondSlowly(exchange, food));
+        foodService.start();
+        registry.add("feign.food-service",
+                () -> "http://localhost:" + foodService.getAddress().getPort());
+    }
+
+    @AfterAll
+    static void stopFoodService() {
+        foodService.stop(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        intakeRepository.deleteAll();
+    }
+
+    @Test
+    void slowFoodServiceDoesNotCapThroughputAtTomcatThreads() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        assertThat(post(client).statusCode()).isEqualTo(201);
+
+        long started = System.nanoTime();
+        List<Future<HttpResponse<String>>> responses = new ArrayList<>();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                responses.add(clients.submit(() -> post(client)));
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - started);
+
+        for (Future<HttpResponse<String>> response : responses) {
+            assertThat(response.get().statusCode()).isEqualTo(201);
+        }
+        assertThat(foodLookups).hasValue(REQUESTS + 1);
+        Duration platformFloor = FOOD_LATENCY.multipliedBy(REQUESTS / MAX_THREADS);
+        log.info("Created {} intakes in {} ms ({} req/s), platform-thread floor {} ms, "
+                        + "pinned: {}", REQUESTS, elapsed.toMillis(),
+                REQUESTS * 1000 / Math.max(1, elapsed.toMillis()), platformFloor.toMillis(),
+                meterRegistry.find("virtual.thread.pinned").timers().stream()
+                        .map(timer -> timer.getId().getTag("source") + "=" + timer.count())
+                        .toList());
+        assertThat(elapsed).isLessThan(platformFloor.dividedBy(2));
+    }
+
+    private HttpResponse<String> post(HttpClient client) throws Exception {
+        String body = objectMapper.writeValueAsString(IntakeRequestDto.builder()
+                .foodId("food-1")
+                .amount(200)
+                .date(LocalDate.now())
+                .unitType(UnitType.GRAMS)
+                .intakePeriod(IntakePeriod.SNACK)
+                .build());
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/intake"))
+                .header(CustomHeaders.X_USER_ID, "1")
+                .header(CustomHeaders.X_REQUEST_ID, UUID.randomUUID().toString())
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static void respondSlowly(HttpExchange exchange, byte[] body) throws IOException {
+        foodLookups.incrementAndGet();
+        try (exchange) {
+            Thread.sleep(FOOD_LATENCY);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static FoodDto food() {
+        return FoodDto.builder()
+                .productName("Oatmeal")
+                .brands("Oat Company")
+                .nutriments(NutrimentsDto.builder()
+                        .caloriesPer100(BigDecimal.valueOf(5))
+                        .carbohydratesPer100(BigDecimal.valueOf(6))
+                        .fatPer100(BigDecimal.valueOf(7))
+                        .proteinPer100(BigDecimal.valueOf(8))
+                        .build())
+                .availableUnits(List.of(UnitType.GRAMS))
+                .build();
+    }
+}
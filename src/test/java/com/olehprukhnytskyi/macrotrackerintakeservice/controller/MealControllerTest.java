@@ -116,6 +116,7 @@ class MealControllerTest extends AbstractIntegrationTest {
         assertThat(savedTemplate.getTotalYieldAmount()).isNull();
         assertThat(savedTemplate.getYieldUnitType()).isNull();
         assertThat(savedTemplate.getItems()).hasSize(2);
+        assertThat(savedTemplate.getTotalCalories()).isEqualByComparingTo("275");
 
         MealTemplateItem item1 = savedTemplate.getItems().stream()
                 .filter(i -> i.getFoodId().equals(foodId1)).findFirst().get();
@@ -657,6 +658,62 @@ class MealControllerTest extends AbstractIntegrationTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("Summary list should return template headers with totals but no items")
+    void getTemplateSummaries_shouldReturnTotalsWithoutItems() throws Exception {
+        // Given
+        MealTemplateRequestDto request = new MealTemplateRequestDto();
+        request.setName("Porridge");
+        request.setItems(List.of(MealTemplateRequestDto.TemplateItemDto.builder()
+                .foodId("food-oats")
+                .unitType(UnitType.GRAMS)
+                .amount(50)
+                .build()));
+        given(foodClientService.getFoodsByIds(anyList()))
+                .willReturn(List.of(createMockFood("food-oats", "Oats", 350)));
+        Long userId = 104L;
+        mockMvc.perform(post("/api/meal-templates")
+                        .header(CustomHeaders.X_USER_ID, userId)
+                        .header(CustomHeaders.X_REQUEST_ID, UUID.randomUUID())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+
+        // When & Then
+        mockMvc.perform(get("/api/meal-templates/summary")
+                        .header(CustomHeaders.X_USER_ID, userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Porridge"))
+                .andExpect(jsonPath("$[0].calories").value(175.0))
+                .andExpect(jsonPath("$[0].protein").value(5.0))
+                .andExpect(jsonPath("$[0].items").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Paged templates should apply filters and report totals")
+    void getTemplatePage_whenFiltered_shouldReturnMatchingPage() throws Exception {
+        // Given
+        Long userId = 105L;
+        createAndSaveTemplateInDb(userId, "Porridge");
+        createAndSaveRecipeTemplateInDb(userId, "Pancakes", 6, UnitType.PIECES);
+        createAndSaveRecipeTemplateInDb(userId, "Pie", 800, UnitType.GRAMS);
+        createAndSaveRecipeTemplateInDb(userId, "Stew", 1000, UnitType.GRAMS);
+
+        // When & Then
+        mockMvc.perform(get("/api/meal-templates/paged")
+                        .header(CustomHeaders.X_USER_ID, userId)
+                        .param("recipeOnly", "true")
+                        .param("namePrefix", "p")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.totalPages").value(2))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Pancakes"))
+                .andExpect(jsonPath("$.content[0].items.length()").value(2));
+    }
+
     private FoodDto createMockFood(String id, String name, double kcal) {
         NutrimentsDto nutriments = NutrimentsDto.builder()
                 .calories(BigDecimal.valueOf(kcal))
@@ -723,6 +780,10 @@ class MealControllerTest extends AbstractIntegrationTest {
                 .recipe(true)
                 .totalYieldAmount(totalYieldAmount)
                 .yieldUnitType(yieldUnitType)
+                .totalCalories(BigDecimal.valueOf(1000))
+                .totalProtein(BigDecimal.valueOf(80))
+                .totalFat(BigDecimal.valueOf(40))
+                .totalCarbohydrates(BigDecimal.valueOf(120))
                 .build();
 
         MealTemplateItem item1 = MealTemplateItem.builder()
@@ -2,11 +2,19 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.mapper;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncItemDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.impl.IntakeMapperImpl;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.impl.NutrimentsMapperImpl;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
+import com.olehprukhnytskyi.util.IntakePeriod;
+import com.olehprukhnytskyi.util.UnitType;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 
 class IntakeMapperCompatibilityTest {
@@ -29,4 +37,46 @@ class IntakeMapperCompatibilityTest {
 
         assertThat(intake.getStatus()).isEqualTo(IntakeStatus.CONSUMED);
     }
+
+    @Test
+    void projectionMapsToSameResponseAsEntity() {
+        Intake intake = Intake.builder()
+                .id(5L)
+                .requestId(UUID.randomUUID())
+                .foodId("food")
+                .foodName("Oats")
+                .amount(150)
+                .unitType(UnitType.GRAMS)
+                .date(LocalDate.of(2025, 3, 1))
+                .intakePeriod(IntakePeriod.BREAKFAST)
+                .status(IntakeStatus.CONSUMED)
+                .nutriments(Nutriments.builder()
+                        .calories(new BigDecimal("570.00"))
+                        .protein(new BigDecimal("19.50"))
+                        .fat(new BigDecimal("10.50"))
+                        .carbohydrates(new BigDecimal("99.00"))
+                        .caloriesPer100(new BigDecimal("380.00"))
+                        .proteinPer100(new BigDecimal("13.00"))
+                        .fatPer100(new BigDecimal("7.00"))
+                        .carbohydratesPer100(new BigDecimal("66.00"))
+                        .build())
+                .version(3L)
+                .build();
+        Nutriments nutriments = intake.getNutriments();
+        IntakeProjection projection = new IntakeProjection(intake.getId(),
+                intake.getUserId(), intake.getRequestId(), null, null, null, intake.getFoodId(),
+                intake.getFoodName(), null, intake.getAmount(), intake.getUnitType(),
+                intake.getDate(), intake.getIntakePeriod(), intake.getStatus(),
+                nutriments.getCalories(), nutriments.getCarbohydrates(), nutriments.getFat(),
+                nutriments.getProtein(), nutriments.getCaloriesPer100(),
+                nutriments.getCarbohydratesPer100(), nutriments.getFatPer100(),
+                nutriments.getProteinPer100(), null, null, null, null,
+                null, null, false, null, false, intake.getVersion());
+
+        IntakeResponseDto fromProjection = mapper.toDto(projection);
+
+        assertThat(fromProjection).isEqualTo(mapper.toDto(intake));
+        assertThat(fromProjection.getAvailableUnits()).containsExactly(UnitType.GRAMS);
+        assertThat(mapper.toSyncDto(projection)).isEqualTo(mapper.toSyncDto(intake));
+    }
 }
@@ -0,0 +1,118 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.CacheInvalidationEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.ResponseVersionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationProducerTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+    private static final LocalDate TUESDAY = LocalDate.of(2024, 1, 16);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private OutboxWriter outboxWriter;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private ResponseVersionService responseVersionService;
+
+    @Test
+    void sendAppendsScopedEventToOutbox() {
+        CacheInvalidationProducer producer = createProducer(true);
+
+        producer.send(1L, "INTAKE", "phone", List.of(MONDAY, MONDAY), List.of(10L));
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(outboxWriter).append(eq("cache-invalidation"), eq("1"), event.capture());
+        assertThat((CacheInvalidationEvent) event.getValue())
+                .extracting(CacheInvalidationEvent::getOriginDeviceId,
+                        CacheInvalidationEvent::getAffectedDates,
+                        CacheInvalidationEvent::getIntakeIds)
+                .containsExactly("phone", Set.of(MONDAY), Set.of(10L));
+        assertThat(meterRegistry.counter("cache.invalidation.received").count()).isEqualTo(1);
+        verify(responseVersionService).intakesChanged(1L, List.of(MONDAY, MONDAY), null);
+    }
+
+    @Test
+    void disabledProducerWritesNothing() {
+        CacheInvalidationProducer producer = createProducer(false);
+
+        producer.send(1L, "INTAKE", "phone");
+
+        verifyNoInteractions(outboxWriter);
+        verify(responseVersionService).intakesChanged(1L, null, null);
+    }
+
+    @Test
+    void coalesceMergesScopesAndKeepsLatestChange() {
+        CacheInvalidationProducer producer = createProducer(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment("cache-invalidation:version:1")).thenReturn(7L);
+        Instant first = Instant.parse("2024-01-15T08:00:00Z");
+
+        CacheInvalidationEvent merged = producer.coalesce(List.of(
+                event("phone", first, Set.of(MONDAY), Set.of(10L)),
+                event("phone", first.plusSeconds(1), Set.of(MONDAY, TUESDAY), Set.of(11L)),
+                event("tablet", first.minusSeconds(1), Set.of(TUESDAY), Set.of(10L))));
+
+        assertThat(merged.getOriginDeviceId()).isNull();
+        assertThat(merged.getChangedAt()).isEqualTo(first.plusSeconds(1));
+        assertThat(merged.getAffectedDates()).containsExactlyInAnyOrder(MONDAY, TUESDAY);
+        assertThat(merged.getIntakeIds()).containsExactlyInAnyOrder(10L, 11L);
+        assertThat(merged.getVersion()).isEqualTo(7L);
+        assertThat(meterRegistry.summary("cache.invalidation.coalesced").totalAmount())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void coalesceWithUnscopedEventInvalidatesAllDates() {
+        CacheInvalidationProducer producer = createProducer(true);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.increment(any())).thenReturn(1L);
+        Instant now = Instant.now();
+
+        CacheInvalidationEvent merged = producer.coalesce(List.of(
+                event(null, now, Set.of(MONDAY), Set.of(10L)),
+                event(null, now, null, null)));
+
+        assertThat(merged.getAffectedDates()).isNull();
+        assertThat(merged.getIntakeIds()).isNull();
+    }
+
+    private CacheInvalidationProducer createProducer(boolean enabled) {
+        return new CacheInvalidationProducer(outboxWriter, redisTemplate,
+                responseVersionService, meterRegistry, enabled);
+    }
+
+    private CacheInvalidationEvent event(String originDeviceId, Instant changedAt,
+                                         Set<LocalDate> dates, Set<Long> intakeIds) {
+        return CacheInvalidationEvent.builder()
+                .userId(1L)
+                .domain("INTAKE")
+                .originDeviceId(originDeviceId)
+                .changedAt(changedAt)
+                .affectedDates(dates)
+                .intakeIds(intakeIds)
+                .build();
+    }
+}
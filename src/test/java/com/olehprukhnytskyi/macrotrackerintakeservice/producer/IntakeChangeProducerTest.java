@@ -0,0 +1,101 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeChangeEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.IntakeReadModelService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IntakeChangeProducerTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private OutboxWriter outboxWriter;
+    @Mock
+    private IntakeReadModelService intakeReadModelService;
+
+    @Test
+    void updateAppendsBeforeAndAfterKeyedByUser() {
+        IntakeChangeProducer producer = new IntakeChangeProducer(outboxWriter,
+                intakeReadModelService, meterRegistry, true);
+        IntakeSnapshot before = snapshot(IntakeStatus.PLANNED, 3L);
+        IntakeSnapshot after = snapshot(IntakeStatus.CONSUMED, 4L);
+
+        producer.publish(1L, "phone", before, after);
+
+        IntakeChangeEvent event = captureEvent();
+        assertThat(event.getType()).isEqualTo(IntakeChangeEvent.ChangeType.UPDATED);
+        assertThat(event.getSchemaVersion()).isEqualTo(IntakeChangeEvent.SCHEMA_VERSION);
+        assertThat(event.getIntakeId()).isEqualTo(10L);
+        assertThat(event.getIntakeVersion()).isEqualTo(4L);
+        assertThat(event.getOriginDeviceId()).isEqualTo("phone");
+        verify(intakeReadModelService).markPending(1L, 10L, 4L);
+        assertThat(event.getBefore()).isSameAs(before);
+        assertThat(event.getAfter()).isSameAs(after);
+        assertThat(event.getEventId()).isNotBlank();
+        assertThat(meterRegistry.counter("intake.changes.published").count()).isEqualTo(1);
+    }
+
+    @Test
+    void deletionCarriesVersionOfSoftDelete() {
+        IntakeChangeProducer producer = new IntakeChangeProducer(outboxWriter,
+                intakeReadModelService, meterRegistry, true);
+
+        producer.publish(1L, null, snapshot(IntakeStatus.CONSUMED, 3L), null);
+
+        IntakeChangeEvent event = captureEvent();
+        assertThat(event.getType()).isEqualTo(IntakeChangeEvent.ChangeType.DELETED);
+        assertThat(event.getIntakeId()).isEqualTo(10L);
+        assertThat(event.getIntakeVersion()).isEqualTo(4L);
+        verify(intakeReadModelService).markPending(1L, 10L, 4L);
+    }
+
+    @Test
+    void createdPublishesOneEventPerIntake() {
+        IntakeChangeProducer producer = new IntakeChangeProducer(outboxWriter,
+                intakeReadModelService, meterRegistry, true);
+
+        producer.created(1L, null, List.of(snapshot(IntakeStatus.CONSUMED, 0L),
+                snapshot(IntakeStatus.PLANNED, 0L)));
+
+        verify(outboxWriter, times(2)).append(eq("intake-changes"), eq("1"),
+                any(IntakeChangeEvent.class));
+    }
+
+    @Test
+    void disabledProducerWritesNothing() {
+        IntakeChangeProducer producer = new IntakeChangeProducer(outboxWriter,
+                intakeReadModelService, meterRegistry, false);
+
+        producer.publish(1L, null, null, snapshot(IntakeStatus.CONSUMED, 0L));
+
+        verifyNoInteractions(outboxWriter, intakeReadModelService);
+    }
+
+    private IntakeChangeEvent captureEvent() {
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(outboxWriter).append(eq("intake-changes"), eq("1"), event.capture());
+        return (IntakeChangeEvent) event.getValue();
+    }
+
+    private static IntakeSnapshot snapshot(IntakeStatus status, Long version) {
+        return IntakeSnapshot.builder()
+                .id(10L)
+                .status(status)
+                .version(version)
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.producer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.CacheInvalidationEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.OutboxEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.OutboxEventRepository;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Mock
+    private CacheInvalidationProducer cacheInvalidationProducer;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, cacheInvalidationProducer,
+                objectMapper, transactionTemplate, 100, Duration.ofSeconds(1),
+                Duration.ofMinutes(1), 3);
+    }
+
+    @Test
+    void relayCoalescesInvalidationsAndDeletesPublishedRows() throws Exception {
+        CacheInvalidationEvent first = invalidation(Instant.parse("2024-01-15T08:00:00Z"));
+        CacheInvalidationEvent second = invalidation(Instant.parse("2024-01-15T08:00:01Z"));
+        CacheInvalidationEvent merged = invalidation(second.getChangedAt());
+        when(outboxEventRepository.lockNextBatch(any(), eq(3), eq(PageRequest.of(0, 100))))
+                .thenReturn(List.of(row(1L, first), row(2L, second)));
+        when(cacheInvalidationProducer.coalesce(List.of(first, second))).thenReturn(merged);
+        when(kafkaTemplate.send("cache-invalidation", "1", merged))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relay();
+
+        verify(outboxEventRepository).claim(eq(List.of(1L, 2L)), any(), any());
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(outboxEventRepository, never()).release(any());
+    }
+
+    @Test
+    void relayKeepsRowsWhenKafkaSendFails() throws Exception {
+        CacheInvalidationEvent event = invalidation(Instant.now());
+        when(outboxEventRepository.lockNextBatch(any(), eq(3), eq(PageRequest.of(0, 100))))
+                .thenReturn(List.of(row(1L, event)));
+        when(cacheInvalidationProducer.coalesce(List.of(event))).thenReturn(event);
+        when(kafkaTemplate.send(eq("cache-invalidation"), eq("1"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("down")));
+
+        relay.relay();
+
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(outboxEventRepository).release(List.of(1L));
+    }
+
+    @Test
+    void relayKeepsUnreadableRowsWithFailureCount() throws Exception {
+        OutboxEvent unreadable = OutboxEvent.builder()
+                .id(1L)
+                .topic("intake-changes")
+                .messageKey("1")
+                .payloadType("com.example.Missing")
+                .payload("{}")
+                .createdAt(Instant.now())
+                .build();
+        when(outboxEventRepository.lockNextBatch(any(), eq(3), eq(PageRequest.of(0, 100))))
+                .thenReturn(List.of(unreadable));
+
+        relay.relay();
+
+        verify(outboxEventRepository).recordFailure(eq(1L), contains("Missing"));
+        verify(outboxEventRepository, never()).deleteById(any());
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        verify(kafkaTemplate, never()).send(any(), any(), any());
+    }
+
+    private CacheInvalidationEvent invalidation(Instant changedAt) {
+        return CacheInvalidationEvent.builder()
+                .userId(1L)
+                .domain("INTAKE")
+                .changedAt(changedAt)
+                .build();
+    }
+
+    private OutboxEvent row(Long id, Object payload) throws Exception {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("cache-invalidation")
+                .messageKey("1")
+                .payloadType(payload.getClass().getName())
+                .payload(objectMapper.writeValueAsString(payload))
+                .createdAt(Instant.now())
+                .build();
+    }
+}
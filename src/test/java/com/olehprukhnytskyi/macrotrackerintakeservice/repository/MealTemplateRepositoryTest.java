@@ -0,0 +1,101 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.AbstractIntegrationTest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.QueryCounter;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.MealTemplateMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.annotation.Transactional;
+
+@Transactional
+class MealTemplateRepositoryTest extends AbstractIntegrationTest {
+    private static final Long USER_ID = 301L;
+
+    @Autowired
+    private MealTemplateRepository mealTemplateRepository;
+    @Autowired
+    private MealTemplateMapper mealTemplateMapper;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private QueryCounter queryCounter;
+
+    @BeforeEach
+    void setUp() {
+        queryCounter = new QueryCounter(entityManagerFactory);
+    }
+
+    @Test
+    @DisplayName("Loading all templates with items should take one statement")
+    void findAllByUserId_shouldNotLoadItemsPerTemplate() {
+        // Given
+        List<MealTemplate> saved = saveTemplates(10);
+
+        // When & Then
+        queryCounter.assertStatements(1, () -> {
+            List<MealTemplateResponseDto> templates = mealTemplateMapper.toDtoList(
+                    mealTemplateRepository.findAllByUserId(USER_ID));
+            assertThat(templates).hasSize(saved.size());
+            assertThat(templates).allSatisfy(template ->
+                    assertThat(template.getItems()).hasSize(3));
+        });
+    }
+
+    @Test
+    @DisplayName("Loading one template with items should take one statement")
+    void findByIdAndUserId_shouldFetchItemsWithTemplate() {
+        // Given
+        Long templateId = saveTemplates(1).getFirst().getId();
+
+        // When & Then
+        queryCounter.assertStatements(1, () -> {
+            MealTemplate template = mealTemplateRepository
+                    .findByIdAndUserId(templateId, USER_ID).orElseThrow();
+            assertThat(template.getItems()).extracting(MealTemplateItem::getFoodId)
+                    .containsExactly("food-0", "food-1", "food-2");
+        });
+    }
+
+    private List<MealTemplate> saveTemplates(int count) {
+        List<MealTemplate> templates = new ArrayList<>();
+        for (int index = 0; index < count; index++) {
+            MealTemplate template = MealTemplate.builder()
+                    .userId(USER_ID)
+                    .name("Template " + index)
+                    .build();
+            List<MealTemplateItem> items = new ArrayList<>();
+            for (int position = 0; position < 3; position++) {
+                items.add(MealTemplateItem.builder()
+                        .template(template)
+                        .foodId("food-" + position)
+                        .foodName("Food " + position)
+                        .amount(100)
+                        .nutriments(Nutriments.builder()
+                                .calories(BigDecimal.TEN)
+                                .build())
+                        .build());
+            }
+            template.setItems(items);
+            templates.add(mealTemplateRepository.save(template));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return templates;
+    }
+}
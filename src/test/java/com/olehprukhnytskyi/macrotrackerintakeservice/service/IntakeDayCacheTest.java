@@ -0,0 +1,96 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.JacksonConfig;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IntakeDayCacheTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    private IntakeDayCache intakeDayCache;
+
+    @BeforeEach
+    void setUp() {
+        intakeDayCache = new IntakeDayCache(new ConcurrentMapCacheManager(), redisTemplate,
+                objectMapper);
+    }
+
+    @Test
+    void deltaKeepsDayOrderedById() {
+        List<IntakeResponseDto> day = List.of(intake(2L, MONDAY, 1L), intake(5L, MONDAY, 1L));
+        IntakeDayDelta delta = new IntakeDayDelta()
+                .upsert(intake(1L, MONDAY, 0L))
+                .upsert(intake(7L, MONDAY, 0L))
+                .upsert(intake(5L, MONDAY, 2L))
+                .remove(2L, MONDAY);
+
+        assertThat(delta.applyTo(MONDAY, day))
+                .extracting(IntakeResponseDto::getId, IntakeResponseDto::getVersion)
+                .containsExactly(
+                        tuple(1L, 0L),
+                        tuple(5L, 2L),
+                        tuple(7L, 0L));
+    }
+
+    @Test
+    void deltaNeverReplacesNewerRow() {
+        List<IntakeResponseDto> day = List.of(intake(5L, MONDAY, 3L));
+
+        assertThat(IntakeDayDelta.of(List.of(intake(5L, MONDAY, 2L))).applyTo(MONDAY, day))
+                .containsExactlyElementsOf(day);
+    }
+
+    @Test
+    void deltaMovesRowBetweenDays() {
+        IntakeDayDelta delta = new IntakeDayDelta()
+                .remove(5L, MONDAY)
+                .upsert(intake(5L, TUESDAY, 2L));
+
+        assertThat(delta.dates()).containsExactly(MONDAY, TUESDAY);
+        assertThat(delta.intakeIds()).containsExactly(5L);
+        assertThat(delta.applyTo(MONDAY, List.of(intake(5L, MONDAY, 1L)))).isEmpty();
+        assertThat(delta.applyTo(TUESDAY, List.of())).extracting(IntakeResponseDto::getId)
+                .containsExactly(5L);
+    }
+
+    @Test
+    void applyKeepsEntryAlreadyAtBumpedVersion() {
+        CachedDayResponse cached = intakeDayCache.render(List.of(), 1, 8);
+        intakeDayCache.put(1L, MONDAY, cached);
+
+        intakeDayCache.apply(1L, Map.of(MONDAY, 8L), IntakeDayDelta.removed(3L, MONDAY));
+
+        assertThat(intakeDayCache.get(1L, MONDAY)).isSameAs(cached);
+    }
+
+    @Test
+    void applyEvictsEntryThatMissedAnUpdate() {
+        intakeDayCache.put(1L, MONDAY, intakeDayCache.render(List.of(), 1, 5));
+
+        intakeDayCache.apply(1L, Map.of(MONDAY, 8L), IntakeDayDelta.removed(3L, MONDAY));
+
+        assertThat(intakeDayCache.get(1L, MONDAY)).isNull();
+    }
+
+    private IntakeResponseDto intake(Long id, LocalDate date, Long version) {
+        return IntakeResponseDto.builder().id(id).date(date).version(version).build();
+    }
+}
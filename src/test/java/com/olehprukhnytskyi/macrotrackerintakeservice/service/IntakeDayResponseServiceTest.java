@@ -0,0 +1,93 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.JacksonConfig;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CachedDayResponseSerializer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class IntakeDayResponseServiceTest {
+    private final ObjectMapper objectMapper = new JacksonConfig().objectMapper();
+    private final CachedDayResponseSerializer serializer = new CachedDayResponseSerializer();
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+    private final ResponseVersionService.Version version =
+            new ResponseVersionService.Version(100, 7);
+    @Mock
+    private IntakeService intakeService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    private IntakeDayResponseService dayResponseService;
+
+    @BeforeEach
+    void setUp() {
+        dayResponseService = new IntakeDayResponseService(intakeService, new IntakeDayCache(
+                new ConcurrentMapCacheManager(), redisTemplate, objectMapper));
+    }
+
+    @Test
+    void findByDateRendersLegacyVariantWithoutPlannedEntries() throws Exception {
+        List<IntakeResponseDto> intakes = List.of(
+                IntakeResponseDto.builder().id(1L).status(IntakeStatus.CONSUMED).build(),
+                IntakeResponseDto.builder().id(2L).status(IntakeStatus.PLANNED).build());
+        when(intakeService.findByDate(date, 1L)).thenReturn(intakes);
+
+        CachedDayResponse day = dayResponseService.findByDate(date, 1L, version);
+
+        assertThat(day.body(true)).isEqualTo(objectMapper.writeValueAsBytes(intakes));
+        assertThat(day.body(false))
+                .isEqualTo(objectMapper.writeValueAsBytes(intakes.subList(0, 1)));
+        CachedDayResponse cached = serializer.deserialize(serializer.serialize(day));
+        assertThat(cached.body(true)).isEqualTo(day.body(true));
+        assertThat(cached.body(false)).isEqualTo(day.body(false));
+        assertThat(cached.getEpoch()).isEqualTo(100);
+        assertThat(cached.getVersion()).isEqualTo(7);
+    }
+
+    @Test
+    void findByDateSharesBodyWhenDayHasNoPlannedEntries() {
+        when(intakeService.findByDate(date, 1L)).thenReturn(List.of(
+                IntakeResponseDto.builder().id(1L).status(IntakeStatus.CONSUMED).build()));
+
+        CachedDayResponse day = dayResponseService.findByDate(date, 1L, version);
+
+        assertThat(day.isLegacyShared()).isTrue();
+        assertThat(serializer.deserialize(serializer.serialize(day)).isLegacyShared()).isTrue();
+    }
+
+    @Test
+    void findByDateReloadsEntryRenderedAtAnotherVersion() {
+        when(intakeService.findByDate(date, 1L)).thenReturn(List.of());
+
+        CachedDayResponse first = dayResponseService.findByDate(date, 1L, version);
+        CachedDayResponse hit = dayResponseService.findByDate(date, 1L, version);
+        CachedDayResponse reloaded = dayResponseService.findByDate(date, 1L,
+                new ResponseVersionService.Version(100, 8));
+
+        assertThat(hit).isSameAs(first);
+        assertThat(reloaded.getVersion()).isEqualTo(8);
+        verify(intakeService, times(2)).findByDate(date, 1L);
+    }
+
+    @Test
+    void valuesCachedInOtherFormatsReadAsMiss() {
+        assertThat(serializer.deserialize("[\"java.util.ArrayList\",[]]"
+                .getBytes(StandardCharsets.UTF_8))).isNull();
+    }
+}
@@ -0,0 +1,110 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ExportJobResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJob;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportJobStatus;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class IntakeExportJobServiceTest {
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @TempDir
+    private Path exportDirectory;
+
+    private IntakeExportService exportService;
+    private IntakeExportJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        exportService = mock(IntakeExportService.class);
+        jobService = new IntakeExportJobService(exportService, exportDirectory, 1, 1,
+                Duration.ZERO);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobService.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should write compressed export file and expose it only to the owner")
+    void submit_whenExportSucceeds_shouldCompleteWithCompressedFile() throws Exception {
+        when(exportService.exportByDateRange(eq(START), eq(END), eq(1L),
+                eq(ExportFormat.CSV), any(OutputStream.class))).thenAnswer(invocation -> {
+                    invocation.<OutputStream>getArgument(4)
+                            .write("id\n1\n".getBytes(StandardCharsets.UTF_8));
+                    return 1L;
+                });
+
+        ExportJobResponseDto submitted = jobService.submit(1L, START, END, ExportFormat.CSV);
+        ExportJobResponseDto completed = awaitFinished(submitted);
+
+        assertThat(completed.getStatus()).isEqualTo(ExportJobStatus.COMPLETED);
+        assertThat(completed.getRowCount()).isEqualTo(1);
+        ExportJob job = jobService.getCompletedJob(submitted.getJobId(), 1L);
+        assertThat(job.getDownloadFilename()).isEqualTo("intakes-2025-01-01-2025-12-31.csv.gz");
+        try (InputStream input = new GZIPInputStream(Files.newInputStream(job.getFile()))) {
+            assertThat(new String(input.readAllBytes(), StandardCharsets.UTF_8))
+                    .isEqualTo("id\n1\n");
+        }
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> jobService.getJob(submitted.getJobId(), 2L));
+        assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+    }
+
+    @Test
+    @DisplayName("Should mark job failed, remove partial file and purge it after retention")
+    void submit_whenExportFails_shouldMarkFailedAndPurge() throws Exception {
+        when(exportService.exportByDateRange(any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+
+        ExportJobResponseDto submitted = jobService.submit(1L, START, END, ExportFormat.JSON);
+        ExportJobResponseDto failed = awaitFinished(submitted);
+
+        assertThat(failed.getStatus()).isEqualTo(ExportJobStatus.FAILED);
+        try (Stream<Path> files = Files.list(exportDirectory)) {
+            assertThat(files).isEmpty();
+        }
+        jobService.purgeExpiredJobs();
+        ResponseStatusException ex = assertThrows(ResponseStatusException.class,
+                () -> jobService.getJob(submitted.getJobId(), 1L));
+        assertThat(ex.getReason()).isEqualTo("Export job not found or expired");
+    }
+
+    private ExportJobResponseDto awaitFinished(ExportJobResponseDto submitted)
+            throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            ExportJobResponseDto current = jobService.getJob(submitted.getJobId(), 1L);
+            if (current.getStatus() == ExportJobStatus.COMPLETED
+                    || current.getStatus() == ExportJobStatus.FAILED) {
+                return current;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Export job did not finish in time");
+    }
+}
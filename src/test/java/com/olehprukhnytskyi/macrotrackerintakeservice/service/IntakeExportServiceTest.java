@@ -0,0 +1,120 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.ExportFormat;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.util.IntakePeriod;
+import com.olehprukhnytskyi.util.UnitType;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class IntakeExportServiceTest {
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+    private static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    @Mock
+    private IntakeRepository intakeRepository;
+    @Mock
+    private IntakeMapper intakeMapper;
+
+    private IntakeExportService exportService;
+    private final Long userId = 7L;
+    private final IntakeProjection first = mock(IntakeProjection.class);
+    private final IntakeProjection second = mock(IntakeProjection.class);
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new IntakeExportService(intakeRepository, intakeMapper, objectMapper);
+        when(intakeRepository.streamByUserIdAndDateBetween(userId, START, END))
+                .thenReturn(Stream.of(first, second));
+        when(intakeMapper.toDto(first)).thenReturn(dto(1L, "Oats"));
+        when(intakeMapper.toDto(second)).thenReturn(dto(2L, "Milk, whole"));
+    }
+
+    @Test
+    @DisplayName("Should stream projected rows as a JSON array")
+    void exportByDateRange_whenJson_shouldWriteArray() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = exportService.exportByDateRange(START, END, userId,
+                ExportFormat.JSON, output);
+
+        String json = output.toString(StandardCharsets.UTF_8);
+        assertThat(written).isEqualTo(2);
+        assertThat(json).startsWith("[{").endsWith("}]")
+                .contains("\"foodName\":\"Oats\"")
+                .contains("\"calories\":120.5");
+    }
+
+    @Test
+    @DisplayName("Should stream CSV with header and quoted cells")
+    void exportByDateRange_whenCsv_shouldWriteHeaderAndEscapedRows() throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        long written = exportService.exportByDateRange(START, END, userId,
+                ExportFormat.CSV, output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(written).isEqualTo(2);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,date,intakePeriod,status,foodId,foodName");
+        assertThat(lines[1]).isEqualTo(
+                "1,2025-03-01,LUNCH,,food,Oats,,150,GRAMS,120.5,,,,,");
+        assertThat(lines[2]).contains(",\"Milk, whole\",");
+    }
+
+    @Test
+    @DisplayName("Should neutralize cells that spreadsheets would read as formulas")
+    void exportByDateRange_whenCsvCellLooksLikeFormula_shouldPrefixQuote() throws Exception {
+        IntakeResponseDto formula = dto(1L, "=HYPERLINK(\"http://evil.example\",\"Oats\")");
+        formula.setBrand("@SUM(A1:A2)");
+        formula.setMealTemplateName("-2+3");
+        when(intakeMapper.toDto(first)).thenReturn(formula);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        exportService.exportByDateRange(START, END, userId, ExportFormat.CSV, output);
+
+        String row = output.toString(StandardCharsets.UTF_8).split("\n")[1];
+        assertThat(row).isEqualTo("1,2025-03-01,LUNCH,,food,"
+                + "\"'=HYPERLINK(\"\"http://evil.example\"\",\"\"Oats\"\")\","
+                + "'@SUM(A1:A2),150,GRAMS,120.5,,,,,'-2+3");
+    }
+
+    private IntakeResponseDto dto(Long id, String foodName) {
+        return IntakeResponseDto.builder()
+                .id(id)
+                .date(LocalDate.of(2025, 3, 1))
+                .intakePeriod(IntakePeriod.LUNCH)
+                .foodId("food")
+                .foodName(foodName)
+                .amount(150)
+                .unitType(UnitType.GRAMS)
+                .nutriments(NutrimentsDto.builder()
+                        .calories(new BigDecimal("120.50"))
+                        .build())
+                .build();
+    }
+}
@@ -0,0 +1,293 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.RedisCircuitBreaker;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.DailyIntakeSummaryDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ReadModelCheckDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeChangeEvent;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
+import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.redis.IntakeReadModelRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+@ExtendWith(MockitoExtension.class)
+class IntakeReadModelServiceTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+    private static final ResponseVersionService.Version SOURCE =
+            new ResponseVersionService.Version(100, 105);
+    @Mock
+    private IntakeReadModelRepository readModelRepository;
+    @Mock
+    private IntakeRepository intakeRepository;
+    @Mock
+    private IntakeMapper intakeMapper;
+    @Mock
+    private IntakeDayCache intakeDayCache;
+    @Mock
+    private ResponseVersionService responseVersionService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private IntakeReadModelService readModelService;
+
+    @BeforeEach
+    void setUp() {
+        readModelService = service(true);
+    }
+
+    @Test
+    void disabledModelIsNeverServed() {
+        assertThat(service(false).servingVersion(1L)).isNull();
+
+        verifyNoInteractions(readModelRepository);
+    }
+
+    @Test
+    void modelIsServedOnlyWithoutPendingChangesInCurrentEpoch() {
+        when(responseVersionService.intakeDayVersion(1L, null)).thenReturn(SOURCE);
+        when(readModelRepository.findMeta(1L))
+                .thenReturn(new IntakeReadModelRepository.Meta(7, 100L, 0))
+                .thenReturn(new IntakeReadModelRepository.Meta(8, 100L, 1))
+                .thenReturn(new IntakeReadModelRepository.Meta(9, 99L, 0));
+
+        assertThat(readModelService.servingVersion(1L)).isEqualTo(7L);
+        assertThat(readModelService.servingVersion(1L)).isNull();
+        assertThat(readModelService.servingVersion(1L)).isNull();
+        assertThat(meterRegistry.counter("read.model.behind").count()).isEqualTo(2);
+    }
+
+    @Test
+    void applyRebuildsUserWithoutModelBeforeApplyingChanges() {
+        when(responseVersionService.intakeDayVersion(1L, null)).thenReturn(SOURCE);
+        when(readModelRepository.findMeta(1L))
+                .thenReturn(null)
+                .thenReturn(null)
+                .thenReturn(new IntakeReadModelRepository.Meta(5, 100L, 0));
+        when(intakeRepository.findProjectionsByUserId(1L)).thenReturn(List.of());
+        when(readModelRepository.replace(1L, null, 100L, List.of(), List.of())).thenReturn(5L);
+        when(readModelRepository.findDays(eq(1L), anyCollection())).thenReturn(days(MONDAY));
+        when(readModelRepository.merge(eq(1L), eq(5L), anyCollection(), anyCollection()))
+                .thenReturn(6L);
+        IntakeChangeEvent created = change(10L, 1L, null, snapshot(10L, MONDAY));
+        when(intakeMapper.toDto(created.getAfter()))
+                .thenReturn(intake(10L, IntakeStatus.CONSUMED, "250"));
+
+        readModelService.apply(1L, List.of(created));
+
+        IntakeReadModelRepository.Day day = mergedDays().getFirst();
+        assertThat(day.intakes()).extracting(IntakeResponseDto::getId).containsExactly(10L);
+        assertThat(mergedIntakes()).containsExactly(
+                new IntakeReadModelRepository.IntakeEntry(10L, 1L, MONDAY));
+    }
+
+    @Test
+    void applySkipsChangesOlderThanTheAppliedVersion() {
+        IntakeReadModelRepository.IntakeEntry applied =
+                new IntakeReadModelRepository.IntakeEntry(10L, 4L, MONDAY);
+        givenModel(Map.of(10L, applied));
+        IntakeResponseDto current = intake(10L, IntakeStatus.CONSUMED, "250");
+        when(readModelRepository.findDays(eq(1L), anyCollection()))
+                .thenReturn(days(MONDAY, current));
+
+        readModelService.apply(1L, List.of(change(10L, 3L, snapshot(10L, MONDAY),
+                snapshot(10L, MONDAY))));
+
+        assertThat(mergedDays().getFirst().intakes()).containsExactly(current);
+        assertThat(mergedIntakes()).containsExactly(applied);
+        verify(intakeMapper, never()).toDto(any(IntakeSnapshot.class));
+    }
+
+    @Test
+    void applyMovesAndRemovesIntakesBetweenDays() {
+        LocalDate tuesday = MONDAY.plusDays(1);
+        givenModel(Map.of(
+                10L, new IntakeReadModelRepository.IntakeEntry(10L, 1L, MONDAY),
+                11L, new IntakeReadModelRepository.IntakeEntry(11L, 2L, MONDAY)));
+        when(readModelRepository.findDays(eq(1L), anyCollection())).thenReturn(days(MONDAY,
+                intake(10L, IntakeStatus.CONSUMED, "250"),
+                intake(11L, IntakeStatus.CONSUMED, "100")));
+        IntakeChangeEvent moved = change(10L, 2L, snapshot(10L, MONDAY),
+                snapshot(10L, tuesday));
+        IntakeResponseDto movedIntake = intake(10L, IntakeStatus.CONSUMED, "250");
+        movedIntake.setDate(tuesday);
+        when(intakeMapper.toDto(moved.getAfter())).thenReturn(movedIntake);
+
+        readModelService.apply(1L, List.of(moved,
+                change(11L, 3L, snapshot(11L, MONDAY), null)));
+
+        assertThat(mergedDays())
+                .extracting(IntakeReadModelRepository.Day::date,
+                        day -> day.intakes().stream().map(IntakeResponseDto::getId).toList())
+                .containsExactly(
+                        tuple(MONDAY, List.of()),
+                        tuple(tuesday, List.of(10L)));
+        assertThat(mergedIntakes()).containsExactly(
+                new IntakeReadModelRepository.IntakeEntry(10L, 2L, tuesday),
+                new IntakeReadModelRepository.IntakeEntry(11L, 3L, null));
+    }
+
+    @Test
+    void dayTotalsCountOnlyConsumedIntakes() {
+        givenModel(Map.of());
+        when(readModelRepository.findDays(eq(1L), anyCollection())).thenReturn(days(MONDAY));
+        IntakeChangeEvent consumed = change(1L, 1L, null, snapshot(1L, MONDAY));
+        IntakeChangeEvent planned = change(2L, 1L, null, snapshot(2L, MONDAY));
+        when(intakeMapper.toDto(consumed.getAfter()))
+                .thenReturn(intake(1L, IntakeStatus.CONSUMED, "250"));
+        IntakeResponseDto plannedIntake = intake(2L, IntakeStatus.PLANNED, "400");
+        plannedIntake.setDate(MONDAY);
+        when(intakeMapper.toDto(planned.getAfter())).thenReturn(plannedIntake);
+
+        readModelService.apply(1L, List.of(consumed, planned));
+
+        IntakeReadModelRepository.Day day = mergedDays().getFirst();
+        assertThat(day.intakes()).hasSize(2);
+        assertThat(day.totals())
+                .extracting(DailyIntakeSummaryDto::getCalories)
+                .isEqualTo(new BigDecimal("250"));
+    }
+
+    @Test
+    void markPendingWaitsForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            readModelService.markPending(1L, 10L, 4L);
+            verifyNoInteractions(readModelRepository);
+
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            verify(readModelRepository).markPending(1L, 10L, 4L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void failedPendingMarkBumpsTheEpoch() {
+        doThrow(new IllegalStateException("redis down"))
+                .when(readModelRepository).markPending(anyLong(), anyLong(), anyLong());
+
+        readModelService.markPending(1L, 10L, 4L);
+
+        verify(responseVersionService).intakesChanged(1L, null);
+    }
+
+    @Test
+    void checkReportsDaysThatDifferFromDatabase() {
+        when(responseVersionService.intakeDayVersion(1L, null)).thenReturn(SOURCE);
+        when(readModelRepository.findMeta(1L))
+                .thenReturn(new IntakeReadModelRepository.Meta(7, 100L, 0));
+        IntakeResponseDto stale = intake(1L, IntakeStatus.CONSUMED, "250");
+        stale.setVersion(0L);
+        when(readModelRepository.findAll(1L)).thenReturn(Map.of(
+                MONDAY, List.of(stale),
+                MONDAY.plusDays(1), List.of(intake(2L, IntakeStatus.CONSUMED, "100"))));
+        IntakeProjection current = mock(IntakeProjection.class);
+        IntakeProjection other = mock(IntakeProjection.class);
+        when(intakeRepository.findProjectionsByUserId(1L)).thenReturn(List.of(current, other));
+        when(intakeMapper.toDto(current)).thenReturn(intake(1L, IntakeStatus.CONSUMED, "250"));
+        when(intakeMapper.toDto(other)).thenReturn(intake(2L, IntakeStatus.CONSUMED, "100"));
+
+        ReadModelCheckDto check = readModelService.check(1L);
+
+        assertThat(check.isBuilt()).isTrue();
+        assertThat(check.isUpToDate()).isTrue();
+        assertThat(check.getCheckedDays()).isEqualTo(2);
+        assertThat(check.getMismatchedDates()).containsExactly(MONDAY);
+    }
+
+    private void givenModel(Map<Long, IntakeReadModelRepository.IntakeEntry> intakes) {
+        when(responseVersionService.intakeDayVersion(1L, null)).thenReturn(SOURCE);
+        when(readModelRepository.findMeta(1L))
+                .thenReturn(new IntakeReadModelRepository.Meta(5, 100L, 1));
+        when(readModelRepository.findIntakes(eq(1L), anyCollection())).thenReturn(intakes);
+        when(readModelRepository.merge(eq(1L), eq(5L), anyCollection(), anyCollection()))
+                .thenReturn(6L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IntakeReadModelRepository.Day> mergedDays() {
+        ArgumentCaptor<Collection<IntakeReadModelRepository.Day>> days =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(readModelRepository).merge(eq(1L), eq(5L), days.capture(), anyCollection());
+        return List.copyOf(days.getValue());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<IntakeReadModelRepository.IntakeEntry> mergedIntakes() {
+        ArgumentCaptor<Collection<IntakeReadModelRepository.IntakeEntry>> intakes =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(readModelRepository).merge(eq(1L), eq(5L), anyCollection(), intakes.capture());
+        return List.copyOf(intakes.getValue());
+    }
+
+    private IntakeReadModelService service(boolean enabled) {
+        return new IntakeReadModelService(readModelRepository, intakeRepository, intakeMapper,
+                intakeDayCache, responseVersionService,
+                new RedisCircuitBreaker(meterRegistry, 5, Duration.ofSeconds(5)),
+                meterRegistry, enabled, true);
+    }
+
+    private static Map<LocalDate, List<IntakeResponseDto>> days(LocalDate date,
+                                                                IntakeResponseDto... intakes) {
+        Map<LocalDate, List<IntakeResponseDto>> days = new TreeMap<>();
+        days.put(date, new ArrayList<>(List.of(intakes)));
+        days.put(date.plusDays(1), new ArrayList<>());
+        return days;
+    }
+
+    private static IntakeChangeEvent change(Long intakeId, Long version, IntakeSnapshot before,
+                                            IntakeSnapshot after) {
+        return IntakeChangeEvent.builder()
+                .userId(1L)
+                .intakeId(intakeId)
+                .intakeVersion(version)
+                .before(before)
+                .after(after)
+                .build();
+    }
+
+    private static IntakeSnapshot snapshot(Long id, LocalDate date) {
+        return IntakeSnapshot.builder().id(id).date(date).build();
+    }
+
+    private static IntakeResponseDto intake(Long id, IntakeStatus status, String calories) {
+        return IntakeResponseDto.builder()
+                .id(id)
+                .date(MONDAY.plusDays(id - 1))
+                .status(status)
+                .nutriments(NutrimentsDto.builder().calories(new BigDecimal(calories)).build())
+                .version(1L)
+                .build();
+    }
+}
@@ -6,12 +6,15 @@ import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyLong;
 import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCache;
 import com.olehprukhnytskyi.macrotrackerintakeservice.config.AbstractIntegrationTest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.CachedDayResponse;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.FoodDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
@@ -20,6 +23,7 @@ import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateIntakeRequestDto
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
 import com.olehprukhnytskyi.util.IntakePeriod;
@@ -28,13 +32,14 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Objects;
-import java.util.Set;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
 
@@ -51,7 +56,15 @@ class IntakeServiceCacheTest extends AbstractIntegrationTest {
     @Autowired
     private IntakeService intakeService;
     @Autowired
+    private IntakeDayResponseService intakeDayResponseService;
+    @Autowired
+    private ResponseVersionService responseVersionService;
+    @Autowired
     private ObjectMapper objectMapper;
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+    @Autowired
+    private CacheManager cacheManager;
 
     private Long intakeId = 1L;
     private final Long userId = 1L;
@@ -73,6 +86,21 @@ class IntakeServiceCacheTest extends AbstractIntegrationTest {
                 .build();
         when(foodClientService.getFoodById(anyString())).thenReturn(foodDto);
         when(foodClientService.getFoodsByIds(anyList())).thenReturn(List.of(foodDto));
+        when(intakeMapper.toDto(any(IntakeProjection.class))).thenAnswer(invocation -> {
+            IntakeProjection projection = invocation.getArgument(0);
+            return IntakeResponseDto.builder()
+                    .id(projection.id())
+                    .date(projection.date())
+                    .build();
+        });
+        when(intakeMapper.toDto(any(Intake.class))).thenAnswer(invocation -> {
+            Intake saved = invocation.getArgument(0);
+            return IntakeResponseDto.builder()
+                    .id(saved.getId())
+                    .date(saved.getDate())
+                    .version(saved.getVersion())
+                    .build();
+        });
 
         Nutriments nutriments = Nutriments.builder()
                 .calories(BigDecimal.valueOf(200))
@@ -98,16 +126,11 @@ class IntakeServiceCacheTest extends AbstractIntegrationTest {
     }
 
     @Test
-    @DisplayName("Should clear cache")
-    void save_shouldClearCache() {
+    @DisplayName("Should patch cached day")
+    void save_shouldPatchCachedDay() throws Exception {
         // Given
-        Long userId = 1L;
-        LocalDate today = LocalDate.now();
-
-        intakeService.findByDate(today, userId);
-
-        Set<String> keysBefore = redisTemplate.keys(CacheConstants.USER_INTAKES + "*");
-        assertThat(keysBefore).isNotEmpty();
+        findToday();
+        assertThat(redisTemplate.keys(CacheConstants.USER_INTAKES + "*")).isNotEmpty();
 
         IntakeRequestDto request = IntakeRequestDto.builder()
                 .amount(100)
@@ -126,65 +149,93 @@ class IntakeServiceCacheTest extends AbstractIntegrationTest {
         when(intakeMapper.toModel(any())).thenReturn(intake);
 
         // When
-        intakeService.save(request, userId, UUID.randomUUID());
+        IntakeResponseDto saved = intakeService.save(request, userId, UUID.randomUUID());
 
         // Then
-        Set<String> keysAfter = redisTemplate.keys(CacheConstants.USER_INTAKES + "*");
-        assertThat(keysAfter).isEmpty();
+        CachedDayResponse day = findToday();
+        verify(intakeRepository, times(1)).findProjectionsByUserIdAndDate(anyLong(), any());
+        assertThat(objectMapper.readTree(day.getBody()).findValuesAsText("id"))
+                .containsExactly(String.valueOf(intakeId), String.valueOf(saved.getId()));
     }
 
     @Test
     @DisplayName("Should use cache on second call")
-    void findByDate_shouldUseCacheOnSecondCall() {
+    void findByDate_shouldUseCacheOnSecondCall() throws Exception {
         // Given
-        Intake mockIntake = new Intake();
-        List<Intake> intakeEntities = List.of(mockIntake);
+        List<IntakeProjection> projections = List.of(mock(IntakeProjection.class));
 
         IntakeResponseDto mockDto = new IntakeResponseDto();
         mockDto.setFoodName("Apple");
 
-        doReturn(intakeEntities).when(intakeRepository).findByUserIdAndDate(anyLong(), any());
-        when(intakeMapper.toDto(any(Intake.class))).thenReturn(mockDto);
+        doReturn(projections).when(intakeRepository)
+                .findProjectionsByUserIdAndDate(anyLong(), any());
+        when(intakeMapper.toDto(any(IntakeProjection.class))).thenReturn(mockDto);
 
         // When
-        List<IntakeResponseDto> intakes1 = intakeService.findByDate(today, userId);
-        verify(intakeRepository, times(1)).findByUserIdAndDate(anyLong(), any());
+        CachedDayResponse day1 = findToday();
+        verify(intakeRepository, times(1)).findProjectionsByUserIdAndDate(anyLong(), any());
 
-        List<IntakeResponseDto> intakes2 = intakeService.findByDate(today, userId);
-        verify(intakeRepository, times(1)).findByUserIdAndDate(anyLong(), any());
+        CachedDayResponse day2 = findToday();
+        verify(intakeRepository, times(1)).findProjectionsByUserIdAndDate(anyLong(), any());
 
         // Then
-        assertThat(intakes1).hasSize(intakes2.size());
-        assertThat(intakes1.getFirst().getFoodName()).isEqualTo(intakes2.getFirst().getFoodName());
+        assertThat(day2.getBody()).isEqualTo(day1.getBody());
+        assertThat(objectMapper.readTree(day2.getBody()).get(0).get("foodName").asText())
+                .isEqualTo("Apple");
     }
 
     @Test
-    @DisplayName("Should clear cache")
-    void update_shouldClearCache() {
-        intakeService.findByDate(today, userId);
-        assertThat(redisTemplate.keys(CacheConstants.USER_INTAKES + "*")).isNotEmpty();
+    @DisplayName("Should track cached days in the user key index")
+    void findByDate_shouldTrackDayInUserKeyIndex() {
+        // When
+        findToday();
+
+        // Then
+        String dayKey = CacheConstants.USER_INTAKES + "::{1}:" + today;
+        assertThat(stringRedisTemplate.opsForSet().members("cache:keys:{1}"))
+                .containsExactly(dayKey);
+
+        ((ResilientRedisCache) cacheManager.getCache(CacheConstants.USER_INTAKES))
+                .evictUser(userId);
+        assertThat(stringRedisTemplate.hasKey(dayKey)).isFalse();
+        assertThat(stringRedisTemplate.hasKey("cache:keys:{1}")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should patch cached day")
+    void update_shouldPatchCachedDay() throws Exception {
+        findToday();
 
         UpdateIntakeRequestDto intakeRequest = UpdateIntakeRequestDto.builder()
                 .amount(200)
                 .build();
 
         // When
-        intakeService.update(intakeId, intakeRequest, userId);
+        IntakeResponseDto updated = intakeService.update(intakeId, intakeRequest, userId);
 
         // Then
-        assertThat(redisTemplate.keys(CacheConstants.USER_INTAKES + "*")).isEmpty();
+        CachedDayResponse day = findToday();
+        verify(intakeRepository, times(1)).findProjectionsByUserIdAndDate(anyLong(), any());
+        assertThat(objectMapper.readTree(day.getBody()).get(0).get("version").asLong())
+                .isEqualTo(updated.getVersion());
     }
 
     @Test
-    @DisplayName("Should clear cache")
-    void deleteById_shouldClearCache() {
-        intakeService.findByDate(today, userId);
-        assertThat(redisTemplate.keys(CacheConstants.USER_INTAKES + "*")).isNotEmpty();
+    @DisplayName("Should patch cached day")
+    void deleteById_shouldPatchCachedDay() throws Exception {
+        findToday();
 
         // When
         intakeService.deleteById(intakeId, userId);
 
         // Then
-        assertThat(redisTemplate.keys(CacheConstants.USER_INTAKES + "*")).isEmpty();
+        CachedDayResponse day = findToday();
+        verify(intakeRepository, times(1)).findProjectionsByUserIdAndDate(anyLong(), any());
+        assertThat(objectMapper.readTree(day.getBody())).isEmpty();
+    }
+
+    private CachedDayResponse findToday() {
+        return intakeDayResponseService.findByDate(today, userId,
+                responseVersionService.intakeDayVersion(userId, today));
     }
 }
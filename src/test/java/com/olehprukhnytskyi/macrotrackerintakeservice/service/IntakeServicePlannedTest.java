@@ -0,0 +1,115 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.config.AbstractIntegrationTest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+class IntakeServicePlannedTest extends AbstractIntegrationTest {
+    private final LocalDate yesterday = LocalDate.now().minusDays(1);
+
+    @MockitoBean
+    private FoodClientService foodClientService;
+
+    @Autowired
+    private IntakeService intakeService;
+    @Autowired
+    private IntakeRepository intakeRepository;
+
+    @AfterEach
+    void tearDown() {
+        intakeRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should consume the user's planned intakes of the day and bump their versions")
+    void consumePlanned_shouldFlipStatusAndBumpVersion() {
+        // Given
+        final Intake first = save(1L, yesterday, IntakeStatus.PLANNED);
+        final Intake second = save(1L, yesterday, IntakeStatus.PLANNED);
+        final Intake consumed = save(1L, yesterday, IntakeStatus.CONSUMED);
+        final Intake nextDay = save(1L, yesterday.plusDays(1), IntakeStatus.PLANNED);
+        final Intake otherUser = save(2L, yesterday, IntakeStatus.PLANNED);
+
+        // When
+        List<IntakeResponseDto> result = intakeService.consumePlanned(yesterday, 1L, null);
+
+        // Then
+        assertThat(result)
+                .extracting(IntakeResponseDto::getId, IntakeResponseDto::getStatus,
+                        IntakeResponseDto::getVersion)
+                .containsExactly(
+                        tuple(first.getId(), IntakeStatus.CONSUMED, first.getVersion() + 1),
+                        tuple(second.getId(), IntakeStatus.CONSUMED, second.getVersion() + 1));
+        assertUnchanged(consumed);
+        assertUnchanged(nextDay);
+        assertUnchanged(otherUser);
+    }
+
+    @Test
+    @DisplayName("Should roll over planned intakes of the given users only")
+    void rolloverPlanned_shouldTouchOnlyGivenUsersAndDate() {
+        // Given
+        final Intake first = save(1L, yesterday, IntakeStatus.PLANNED);
+        final Intake second = save(2L, yesterday, IntakeStatus.PLANNED);
+        final Intake third = save(2L, yesterday, IntakeStatus.PLANNED);
+        final Intake nextDay = save(2L, yesterday.plusDays(1), IntakeStatus.PLANNED);
+        final Intake otherUser = save(3L, yesterday, IntakeStatus.PLANNED);
+
+        // When
+        int rolledOver = intakeService.rolloverPlanned(yesterday, List.of(1L, 2L, 4L));
+
+        // Then
+        assertThat(rolledOver).isEqualTo(3);
+        for (Intake intake : List.of(first, second, third)) {
+            Intake reloaded = intakeRepository.findById(intake.getId()).orElseThrow();
+            assertThat(reloaded.getStatus()).isEqualTo(IntakeStatus.CONSUMED);
+            assertThat(reloaded.getVersion()).isEqualTo(intake.getVersion() + 1);
+            assertThat(reloaded.getUpdatedAt()).isAfter(intake.getUpdatedAt());
+        }
+        assertUnchanged(nextDay);
+        assertUnchanged(otherUser);
+    }
+
+    @Test
+    @DisplayName("Should do nothing when no planned intakes are left")
+    void rolloverPlanned_whenNothingPlanned_shouldReturnZero() {
+        final Intake consumed = save(1L, yesterday, IntakeStatus.CONSUMED);
+
+        assertThat(intakeService.rolloverPlanned(yesterday, List.of(1L))).isZero();
+        assertUnchanged(consumed);
+    }
+
+    private void assertUnchanged(Intake intake) {
+        Intake reloaded = intakeRepository.findById(intake.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(intake.getStatus());
+        assertThat(reloaded.getVersion()).isEqualTo(intake.getVersion());
+    }
+
+    private Intake save(Long userId, LocalDate date, IntakeStatus status) {
+        Intake intake = Intake.builder()
+                .userId(userId)
+                .foodId("00000000")
+                .foodName("Rice")
+                .amount(100)
+                .date(date)
+                .status(status)
+                .updatedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+        intake.getNutriments().setCalories(BigDecimal.valueOf(130));
+        return intakeRepository.saveAndFlush(intake);
+    }
+}
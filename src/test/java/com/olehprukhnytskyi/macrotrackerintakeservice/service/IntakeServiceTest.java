@@ -5,14 +5,19 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.ExternalServiceException;
 import com.olehprukhnytskyi.exception.NotFoundException;
+import com.olehprukhnytskyi.exception.error.CommonErrorCode;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.FoodDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
@@ -21,15 +26,19 @@ import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncPushRequestD
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeSyncResponseDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.UpdateIntakeRequestDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.event.IntakeSnapshot;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
 import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.IntakeChangeProducer;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.GramsCalculationStrategy;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientStrategyFactory;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
 import com.olehprukhnytskyi.util.UnitType;
 import feign.FeignException;
 import feign.Request;
@@ -39,12 +48,22 @@ import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 @ExtendWith(MockitoExtension.class)
@@ -63,12 +82,26 @@ class IntakeServiceTest {
     private NutrimentsMapper nutrimentsMapper;
     @Mock
     private CacheInvalidationProducer cacheInvalidationProducer;
+    @Mock
+    private IntakeChangeProducer intakeChangeProducer;
+    @Mock
+    private PlanningEntitlementService planningEntitlementService;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+    @Mock
+    private CacheManager cacheManager;
 
     @InjectMocks
     private IntakeService intakeService;
 
     private final Long userId = 456L;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     @DisplayName("When request id already exists, should return persisted intake")
     void save_whenRequestIdExists_shouldReturnPersistedIntake() {
@@ -101,8 +134,7 @@ class IntakeServiceTest {
                 .build();
 
         Intake intake = new Intake();
-        Intake savedIntake = new Intake();
-        savedIntake.setId(1L);
+        Intake savedIntake = Intake.builder().id(1L).date(LocalDate.now()).build();
         IntakeResponseDto responseDto = IntakeResponseDto.builder()
                 .id(1L)
                 .foodName("Apple")
@@ -137,6 +169,40 @@ class IntakeServiceTest {
         assertEquals(requestId, intake.getRequestId());
     }
 
+    @Test
+    @DisplayName("When insert races a retry, should return the winner without publishing")
+    void save_whenRequestIdInsertedConcurrently_shouldReturnWinnerWithoutPublishing() {
+        // Given
+        UUID requestId = UUID.randomUUID();
+        IntakeRequestDto requestDto = new IntakeRequestDto("food123");
+        Intake intake = new Intake();
+        Intake winner = Intake.builder().id(10L).userId(userId).requestId(requestId).build();
+        IntakeResponseDto winnerDto = IntakeResponseDto.builder().id(10L).build();
+
+        when(intakeRepository.findByUserIdAndRequestId(userId, requestId))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(winner));
+        when(foodClientService.getFoodById("food123")).thenReturn(FoodDto.builder()
+                .availableUnits(List.of(UnitType.GRAMS))
+                .build());
+        when(intakeMapper.toModel(requestDto)).thenReturn(intake);
+        when(nutrientStrategyFactory.getStrategy(UnitType.GRAMS))
+                .thenReturn(new GramsCalculationStrategy());
+        when(nutrimentsMapper.fromFoodNutriments(any())).thenReturn(new Nutriments());
+        when(intakeRepository.saveAndFlush(intake))
+                .thenThrow(new DataIntegrityViolationException("duplicate request id"));
+        when(intakeMapper.toDto(winner)).thenReturn(winnerDto);
+
+        // When
+        IntakeResponseDto result = intakeService.save(requestDto, userId, requestId);
+
+        // Then
+        assertEquals(winnerDto, result);
+        verify(transactionTemplate).execute(any());
+        verify(cacheInvalidationProducer, never()).send(any(), any(), any(IntakeDayDelta.class));
+        verify(intakeChangeProducer, never()).publish(any(), any(), any(), any());
+    }
+
     @Test
     @DisplayName("When food not found, should throw BAD_REQUEST")
     void save_whenFoodNotFound_shouldThrowBadRequest() {
@@ -175,6 +241,63 @@ class IntakeServiceTest {
         verify(intakeRepository, never()).saveAndFlush(any());
     }
 
+    @Test
+    @DisplayName("When food not found, should use original food looked up concurrently")
+    void save_whenFoodNotFound_shouldUseConcurrentOriginalFoodLookup() {
+        // Given
+        IntakeRequestDto requestDto = new IntakeRequestDto("food123");
+        requestDto.setOriginalFoodId("original123");
+        FoodDto original = FoodDto.builder()
+                .id("original123")
+                .productName("Apple")
+                .availableUnits(List.of(UnitType.GRAMS))
+                .build();
+        Intake intake = new Intake();
+        Intake savedIntake = Intake.builder().id(1L).date(LocalDate.now()).build();
+        CountDownLatch originalRequested = new CountDownLatch(1);
+
+        when(foodClientService.getFoodById("food123")).thenAnswer(invocation -> {
+            assertTrue(originalRequested.await(5, TimeUnit.SECONDS));
+            throw new FeignException.NotFound("Not found", mock(Request.class), null, null);
+        });
+        when(foodClientService.getFoodById("original123")).thenAnswer(invocation -> {
+            originalRequested.countDown();
+            return original;
+        });
+        when(intakeMapper.toModel(requestDto)).thenReturn(intake);
+        when(intakeRepository.saveAndFlush(intake)).thenReturn(savedIntake);
+        when(intakeMapper.toDto(savedIntake))
+                .thenReturn(IntakeResponseDto.builder().id(1L).build());
+        when(nutrientStrategyFactory.getStrategy(UnitType.GRAMS))
+                .thenReturn(new GramsCalculationStrategy());
+        when(nutrimentsMapper.fromFoodNutriments(any())).thenReturn(new Nutriments());
+
+        // When
+        intakeService.save(requestDto, userId, UUID.randomUUID());
+
+        // Then
+        verify(intakeMapper).updateIntakeFromFoodDto(intake, original);
+        verify(intakeRepository).saveAndFlush(intake);
+    }
+
+    @Test
+    @DisplayName("When planning is not entitled, should throw BAD_REQUEST without saving")
+    void save_whenPlanningNotEntitled_shouldThrowBadRequest() {
+        // Given
+        IntakeRequestDto requestDto = new IntakeRequestDto("food123");
+        requestDto.setDate(LocalDate.now().plusDays(1));
+        requestDto.setStatus(IntakeStatus.PLANNED);
+        doThrow(new BadRequestException(CommonErrorCode.BAD_REQUEST, "Pro required"))
+                .when(planningEntitlementService).requireFuturePlanning(userId);
+
+        // When & Then
+        BadRequestException ex = assertThrows(BadRequestException.class,
+                () -> intakeService.save(requestDto, userId, UUID.randomUUID()));
+
+        assertEquals("Pro required", ex.getMessage());
+        verify(intakeRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     @DisplayName("Should undo intake group")
     void undoIntakeGroup_shouldSoftDelete() {
@@ -192,6 +315,35 @@ class IntakeServiceTest {
         verify(applicationRepository).deleteByUserIdAndMealGroupId(userId, groupId);
     }
 
+    @Test
+    @DisplayName("Undoing an intake group should evict its day only after commit")
+    void undoIntakeGroup_shouldEvictDayAfterCommit() {
+        // Given
+        UUID groupId = UUID.randomUUID();
+        LocalDate date = LocalDate.of(2026, 6, 19);
+        Cache cache = mock(Cache.class);
+        when(intakeRepository.findFirstByMealGroupIdAndUserIdAndDeletedFalse(
+                groupId.toString(), userId))
+                .thenReturn(Optional.of(Intake.builder().date(date).build()));
+        when(intakeRepository.softDeleteByMealGroupIdAndUserId(
+                any(), any(), any(Instant.class))).thenReturn(2);
+        when(cacheManager.getCache(CacheConstants.USER_INTAKES)).thenReturn(cache);
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            intakeService.undoIntakeGroup(groupId, userId);
+            verifyNoInteractions(cache);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        verify(cache).evict("{456}:" + date);
+    }
+
     @Test
     @DisplayName("When intake is deleted, should keep tombstone")
     void deleteById_shouldSoftDelete() {
@@ -201,13 +353,16 @@ class IntakeServiceTest {
                 .userId(userId)
                 .date(LocalDate.of(2026, 6, 19))
                 .build();
+        IntakeSnapshot before = IntakeSnapshot.builder().id(intakeId).version(2L).build();
         when(intakeRepository.findByIdAndUserId(intakeId, userId))
                 .thenReturn(Optional.of(intake));
+        when(intakeMapper.toSnapshot(intake)).thenReturn(before);
 
         intakeService.deleteById(intakeId, userId);
 
         assertTrue(intake.isDeleted());
         verify(intakeRepository).saveAndFlush(intake);
+        verify(intakeChangeProducer).publish(userId, null, before, null);
     }
 
     @Test
@@ -277,6 +432,10 @@ class IntakeServiceTest {
                 .updateEntityFromSyncDto(any(IntakeSyncItemDto.class), any(Intake.class));
         when(intakeRepository.saveAndFlush(existing)).thenReturn(existing);
         when(intakeMapper.toSyncDto(existing)).thenReturn(serverDto);
+        when(intakeMapper.toDto(existing)).thenReturn(IntakeResponseDto.builder()
+                .id(10L)
+                .date(existing.getDate())
+                .build());
 
         IntakeSyncResponseDto response = intakeService.pushSync(userId,
                 IntakeSyncPushRequestDto.builder()
@@ -3,35 +3,48 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.olehprukhnytskyi.exception.BadRequestException;
 import com.olehprukhnytskyi.exception.NotFoundException;
 import com.olehprukhnytskyi.exception.error.IntakeErrorCode;
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.ResilientRedisCache;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.FoodDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.IntakeResponseDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealPlanBatchRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.MealTemplateRequestDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.NutrimentsDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.IntakeMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.MealTemplateMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.mapper.NutrimentsMapper;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateApplication;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
 import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.IntakeChangeProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.projection.IntakeProjection;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.GramsCalculationStrategy;
 import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.NutrientStrategyFactory;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
 import com.olehprukhnytskyi.util.IntakePeriod;
 import com.olehprukhnytskyi.util.UnitType;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +52,11 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @ExtendWith(MockitoExtension.class)
 class MealServiceTest {
@@ -62,10 +80,26 @@ class MealServiceTest {
     private FoodClientService foodClientService;
     @Mock
     private NutrientStrategyFactory nutrientStrategyFactory;
+    @Mock
+    private PlanningEntitlementService planningEntitlementService;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private ResponseVersionService responseVersionService;
+    @Mock
+    private IntakeChangeProducer intakeChangeProducer;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private MealService mealService;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
     @Test
     @DisplayName("When request id already exists, should return persisted template")
     void createTemplate_whenRequestIdExists_shouldReturnPersistedTemplate() {
@@ -203,8 +237,122 @@ class MealServiceTest {
                         "Template not found"));
 
         // When & Then
-        assertThrows(NotFoundException.class, () ->
-                mealService.applyTemplate(1L, date, IntakePeriod.SNACK,
-                        mealGroupId, 1L, requestId));
+        assertThrows(NotFoundException.class, () ->
+                mealService.applyTemplate(1L, date, IntakePeriod.SNACK,
+                        mealGroupId, 1L, requestId));
+    }
+
+    @Test
+    @DisplayName("Batch apply should check entitlement once and patch every planned day once")
+    void applyTemplates_whenFutureDates_shouldValidateOnceAndPatchEachDate() {
+        // Given
+        Long userId = 1L;
+        LocalDate monday = LocalDate.now().plusDays(1);
+        LocalDate tuesday = LocalDate.now().plusDays(2);
+        List<MealPlanBatchRequestDto.EntryDto> entries = List.of(
+                entry(10L, monday, IntakePeriod.BREAKFAST),
+                entry(11L, monday, IntakePeriod.DINNER),
+                entry(10L, tuesday, IntakePeriod.BREAKFAST));
+        IntakeResponseDto breakfast = IntakeResponseDto.builder().id(5L).foodName("Oats")
+                .date(monday).build();
+        IntakeResponseDto dinner = IntakeResponseDto.builder().id(6L).foodName("Soup")
+                .date(monday).build();
+        IntakeResponseDto nextBreakfast = IntakeResponseDto.builder().id(7L).foodName("Oats")
+                .date(tuesday).build();
+        when(applicationRepository.findAllByUserIdAndRequestIdIn(any(), anyList()))
+                .thenReturn(List.of());
+        when(applicationService.createBatch(entries, userId)).thenReturn(Map.of(
+                entries.get(0).getRequestId(), List.of(breakfast),
+                entries.get(1).getRequestId(), List.of(dinner),
+                entries.get(2).getRequestId(), List.of(nextBreakfast)));
+
+        // When
+        List<IntakeResponseDto> result = mealService.applyTemplates(entries, userId, "phone");
+
+        // Then
+        assertThat(result).containsExactly(breakfast, dinner, nextBreakfast);
+        verify(planningEntitlementService, times(1)).requireFuturePlanning(userId);
+        ArgumentCaptor<IntakeDayDelta> delta = ArgumentCaptor.forClass(IntakeDayDelta.class);
+        verify(cacheInvalidationProducer, times(1)).send(eq(userId), eq("phone"),
+                delta.capture());
+        assertThat(delta.getValue().dates()).containsExactly(monday, tuesday);
+        assertThat(delta.getValue().intakeIds()).containsExactly(5L, 6L, 7L);
+        assertThat(delta.getValue().applyTo(monday, List.of())).containsExactly(breakfast, dinner);
+    }
+
+    @Test
+    @DisplayName("Batch apply should return already applied entries without writing")
+    void applyTemplates_whenAllEntriesApplied_shouldNotWrite() {
+        // Given
+        Long userId = 1L;
+        MealPlanBatchRequestDto.EntryDto entry = entry(10L, LocalDate.now(),
+                IntakePeriod.LUNCH);
+        MealTemplateApplication application = MealTemplateApplication.builder()
+                .requestId(entry.getRequestId())
+                .mealGroupId(entry.getMealGroupId())
+                .build();
+        IntakeProjection projection = mock(IntakeProjection.class);
+        IntakeResponseDto existing = IntakeResponseDto.builder()
+                .mealGroupId(entry.getMealGroupId().toString())
+                .build();
+        when(applicationRepository.findAllByUserIdAndRequestIdIn(userId,
+                List.of(entry.getRequestId()))).thenReturn(List.of(application));
+        when(intakeRepository.findProjectionsByMealGroupIdInAndUserId(
+                List.of(entry.getMealGroupId().toString()), userId))
+                .thenReturn(List.of(projection));
+        when(intakeMapper.toDto(projection)).thenReturn(existing);
+
+        // When
+        List<IntakeResponseDto> result = mealService.applyTemplates(List.of(entry), userId,
+                null);
+
+        // Then
+        assertThat(result).containsExactly(existing);
+        verify(applicationService, never()).createBatch(anyList(), any());
+        verify(cacheInvalidationProducer, never()).send(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Batch apply should reject duplicate request ids")
+    void applyTemplates_whenDuplicateRequestIds_shouldThrowBadRequest() {
+        MealPlanBatchRequestDto.EntryDto first = entry(10L, LocalDate.now(), IntakePeriod.LUNCH);
+        MealPlanBatchRequestDto.EntryDto second = entry(11L, LocalDate.now(), IntakePeriod.SNACK);
+        second.setRequestId(first.getRequestId());
+
+        assertThrows(BadRequestException.class, () ->
+                mealService.applyTemplates(List.of(first, second), 1L, null));
+        verify(applicationService, never()).createBatch(anyList(), any());
+    }
+
+    @Test
+    @DisplayName("Deleting a template should evict its pages only after commit")
+    void deleteTemplate_shouldEvictTemplatePagesAfterCommit() {
+        MealTemplate template = MealTemplate.builder().id(10L).userId(1L).build();
+        ResilientRedisCache pages = mock(ResilientRedisCache.class);
+        when(mealTemplateRepository.findByIdAndUserId(10L, 1L))
+                .thenReturn(Optional.of(template));
+        when(cacheManager.getCache(CacheConstants.MEAL_TEMPLATE_PAGES)).thenReturn(pages);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            mealService.deleteTemplate(10L, 1L);
+            verifyNoInteractions(pages);
+
+            TransactionSynchronizationUtils.triggerAfterCommit();
+            verify(pages).evictUser(1L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private MealPlanBatchRequestDto.EntryDto entry(Long templateId, LocalDate date,
+                                                   IntakePeriod period) {
+        return MealPlanBatchRequestDto.EntryDto.builder()
+                .templateId(templateId)
+                .date(date)
+                .period(period)
+                .mealGroupId(UUID.randomUUID())
+                .requestId(UUID.randomUUID())
+                .build();
     }
 }
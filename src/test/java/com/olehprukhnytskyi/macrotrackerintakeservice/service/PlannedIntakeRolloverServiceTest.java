@@ -0,0 +1,129 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class PlannedIntakeRolloverServiceTest {
+    private static final String LOCK_KEY = "lock:planning:rollover";
+    private final LocalDate date = LocalDate.of(2024, 1, 15);
+    @Mock
+    private IntakeRepository intakeRepository;
+    @Mock
+    private IntakeService intakeService;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    private PlannedIntakeRolloverService rolloverService;
+
+    @BeforeEach
+    void setUp() {
+        rolloverService = new PlannedIntakeRolloverService(intakeRepository, intakeService,
+                redisTemplate, 2, Duration.ZERO, Duration.ofMinutes(5));
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rolloverService.shutdown();
+    }
+
+    @Test
+    void rolloverProcessesUsersInChunksAndReleasesLock() {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), eq(Duration.ofMinutes(5))))
+                .thenReturn(true);
+        when(intakeRepository.findUserIdsWithPlannedAfter(
+                date, Long.MIN_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(intakeRepository.findUserIdsWithPlannedAfter(date, 2L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(3L));
+        when(intakeService.rolloverPlanned(date, List.of(1L, 2L))).thenReturn(4);
+        when(intakeService.rolloverPlanned(date, List.of(3L))).thenReturn(1);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(),
+                eq("300000"))).thenReturn(1L);
+
+        int consumed = rolloverService.rollover(date);
+
+        assertThat(consumed).isEqualTo(5);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)),
+                anyString(), eq("300000"));
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)),
+                anyString());
+    }
+
+    @Test
+    void rolloverStopsWhenLockIsLost() {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(intakeRepository.findUserIdsWithPlannedAfter(
+                date, Long.MIN_VALUE, PageRequest.of(0, 2))).thenReturn(List.of(1L, 2L));
+        when(intakeService.rolloverPlanned(date, List.of(1L, 2L))).thenReturn(4);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(),
+                anyString())).thenReturn(0L);
+
+        int consumed = rolloverService.rollover(date);
+
+        assertThat(consumed).isEqualTo(4);
+        verify(intakeRepository, never()).findUserIdsWithPlannedAfter(
+                eq(date), eq(2L), any(PageRequest.class));
+    }
+
+    @Test
+    void rolloverYesterdayReturnsAtOnceAndSkipsWhileRunning() throws Exception {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(intakeRepository.findUserIdsWithPlannedAfter(
+                yesterday, Long.MIN_VALUE, PageRequest.of(0, 2))).thenAnswer(invocation -> {
+                    started.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return List.of();
+                });
+
+        rolloverService.rolloverYesterday();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        rolloverService.rolloverYesterday();
+        release.countDown();
+
+        verify(redisTemplate, timeout(5000)).execute(any(RedisScript.class),
+                eq(List.of(LOCK_KEY)), anyString());
+        verify(valueOperations).setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void rolloverSkipsWhenAnotherNodeHoldsLock() {
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(false);
+
+        int consumed = rolloverService.rollover(date);
+
+        assertThat(consumed).isZero();
+        verifyNoInteractions(intakeRepository, intakeService);
+    }
+}
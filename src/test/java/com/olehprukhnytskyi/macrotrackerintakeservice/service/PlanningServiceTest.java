@@ -2,24 +2,31 @@ package com.olehprukhnytskyi.macrotrackerintakeservice.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ShoppingListItemDto;
+import com.olehprukhnytskyi.macrotrackerintakeservice.dto.ShoppingListSnapshotDto;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.Intake;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.IntakeStatus;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplate;
 import com.olehprukhnytskyi.macrotrackerintakeservice.model.MealTemplateItem;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
 import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
 import com.olehprukhnytskyi.util.UnitType;
 import java.time.LocalDate;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 
 @ExtendWith(MockitoExtension.class)
 class PlanningServiceTest {
@@ -29,6 +36,10 @@ class PlanningServiceTest {
     private MealTemplateRepository templateRepository;
     @Mock
     private PlanningEntitlementService entitlementService;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
     @InjectMocks
     private PlanningService planningService;
 
@@ -49,8 +60,9 @@ class PlanningServiceTest {
                                 .amount(300).unitType(UnitType.GRAMS).build())).build();
         when(intakeRepository.findByUserIdAndDateBetweenAndStatus(
                 userId, from, to, IntakeStatus.PLANNED)).thenReturn(List.of(oats, recipe));
-        when(templateRepository.findByIdAndUserId(12L, userId))
-                .thenReturn(Optional.of(template));
+        when(templateRepository.findAllByUserIdAndIdIn(userId, Set.of(12L)))
+                .thenReturn(List.of(template));
+        when(cacheManager.getCache(CacheConstants.SHOPPING_LISTS)).thenReturn(cache);
 
         List<ShoppingListItemDto> result = planningService.shoppingList(userId, from, to);
 
@@ -62,6 +74,7 @@ class PlanningServiceTest {
                         tuple("Oats", 100, null, null),
                         tuple("Oats", 100, 12L, "Porridge"),
                         tuple("Milk", 150, 12L, "Porridge"));
+        verify(cache).put(any(), any(ShoppingListSnapshotDto.class));
     }
 
     @Test
@@ -86,10 +99,8 @@ class PlanningServiceTest {
         when(intakeRepository.findByUserIdAndDateBetweenAndStatus(
                 userId, from, to, IntakeStatus.PLANNED))
                 .thenReturn(List.of(firstServing, secondServing, otherRecipe));
-        when(templateRepository.findByIdAndUserId(12L, userId))
-                .thenReturn(Optional.of(porridge));
-        when(templateRepository.findByIdAndUserId(13L, userId))
-                .thenReturn(Optional.of(cookies));
+        when(templateRepository.findAllByUserIdAndIdIn(userId, Set.of(12L, 13L)))
+                .thenReturn(List.of(porridge, cookies));
 
         List<ShoppingListItemDto> result = planningService.shoppingList(userId, from, to);
 
@@ -100,4 +111,22 @@ class PlanningServiceTest {
                         tuple("Salt", 1, 12L),
                         tuple("Salt", 2, 13L));
     }
+
+    @Test
+    void shoppingListReturnsCachedSnapshotForSameRange() {
+        Long userId = 7L;
+        LocalDate from = LocalDate.now();
+        LocalDate to = from.plusDays(3);
+        List<ShoppingListItemDto> items = List.of(ShoppingListItemDto.builder()
+                .foodId("oats").foodName("Oats").amount(100).unitType(UnitType.GRAMS).build());
+        when(cacheManager.getCache(CacheConstants.SHOPPING_LISTS)).thenReturn(cache);
+        when(cache.get("{7}", ShoppingListSnapshotDto.class)).thenReturn(
+                ShoppingListSnapshotDto.builder().from(from).to(to).items(items).build());
+
+        List<ShoppingListItemDto> result = planningService.shoppingList(userId, from, to);
+
+        assertThat(result).isEqualTo(items);
+        verify(intakeRepository, never()).findByUserIdAndDateBetweenAndStatus(
+                any(), any(), any(), any());
+    }
 }
@@ -0,0 +1,129 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.cache.RedisCircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class ResponseVersionServiceTest {
+    private static final LocalDate MONDAY = LocalDate.of(2024, 1, 15);
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private IntakeDayCache intakeDayCache;
+    private ResponseVersionService versionService;
+
+    @BeforeEach
+    void setUp() {
+        versionService = new ResponseVersionService(redisTemplate, intakeDayCache,
+                new RedisCircuitBreaker(new SimpleMeterRegistry(), 5, Duration.ofSeconds(5)),
+                Duration.ofDays(35));
+    }
+
+    @Test
+    void intakeDayEtagCombinesUserEpochAndDayVersion() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("etag:version:{1}", "etag:version:{1}:intakes:2024-01-15")),
+                anyString(), anyString()))
+                .thenReturn("1700000000000.1700000000005");
+
+        ResponseVersionService.Version version = versionService.intakeDayVersion(1L, MONDAY);
+
+        assertThat(version)
+                .isEqualTo(new ResponseVersionService.Version(1700000000000L, 1700000000005L));
+        assertThat(versionService.intakeDayEtag(version, true))
+                .isEqualTo("\"1700000000000.1700000000005\"");
+        assertThat(versionService.intakeDayEtag(version, false))
+                .isEqualTo("\"1700000000000.1700000000005-legacy\"");
+    }
+
+    @Test
+    void etagIsOmittedWhenRedisIsUnavailable() {
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(versionService.templatesEtag(1L)).isNull();
+        assertThat(versionService.intakeDayEtag(versionService.intakeDayVersion(1L, MONDAY),
+                true)).isNull();
+        assertThat(versionService.matches("*", null)).isFalse();
+    }
+
+    @Test
+    void bumpMissedWhileRedisIsDownBumpsUserEpochOnRecovery() {
+        when(redisTemplate.execute(any(RedisScript.class),
+                eq(List.of("etag:version:{1}:templates")), anyString(), anyString()))
+                .thenThrow(new RedisConnectionFailureException("down"));
+        versionService.templatesChanged(1L);
+
+        versionService.templatesEtag(2L);
+
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of("etag:version:{1}")),
+                anyString(), anyString());
+    }
+
+    @Test
+    void matchesAnyListedTagUsingWeakComparison() {
+        assertThat(versionService.matches("\"a\", W/\"b\"", "\"b\"")).isTrue();
+        assertThat(versionService.matches("*", "\"b\"")).isTrue();
+        assertThat(versionService.matches("\"a\"", "\"b\"")).isFalse();
+        assertThat(versionService.matches(null, "\"b\"")).isFalse();
+    }
+
+    @Test
+    void intakesChangedBumpsUserAndDayCountersAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            versionService.intakesChanged(1L, Arrays.asList(MONDAY, MONDAY, null));
+
+            assertThat(TransactionSynchronizationManager.getSynchronizations()).hasSize(1);
+            TransactionSynchronizationManager.getSynchronizations().getFirst().afterCommit();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("etag:version:{1}:intakes", "etag:version:{1}:intakes:2024-01-15")),
+                anyString(), eq(String.valueOf(Duration.ofDays(35).toMillis())));
+    }
+
+    @Test
+    void intakesChangedPatchesCachedDaysWithBumpedVersions() {
+        IntakeDayDelta delta = IntakeDayDelta.removed(3L, MONDAY);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), anyString(), anyString()))
+                .thenReturn(List.of(11L, 8L));
+
+        versionService.intakesChanged(1L, delta.dates(), delta);
+
+        verify(intakeDayCache).apply(1L, Map.of(MONDAY, 8L), delta);
+    }
+
+    @Test
+    void intakesChangedWithUnknownDatesBumpsUserEpoch() {
+        versionService.intakesChanged(1L, null);
+
+        verify(redisTemplate).execute(any(RedisScript.class),
+                eq(List.of("etag:version:{1}:intakes", "etag:version:{1}")),
+                anyString(), anyString());
+    }
+}
@@ -0,0 +1,260 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.UserPurgeRequest;
+import com.olehprukhnytskyi.macrotrackerintakeservice.producer.CacheInvalidationProducer;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.IntakeRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateApplicationRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.MealTemplateRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.jpa.UserPurgeRequestRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.repository.redis.IntakeReadModelRepository;
+import com.olehprukhnytskyi.macrotrackerintakeservice.util.CacheConstants;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class UserDataPurgeServiceTest {
+    private static final String LOCK_KEY = "lock:purge:user:7";
+    @Mock
+    private IntakeRepository intakeRepository;
+    @Mock
+    private MealTemplateRepository templateRepository;
+    @Mock
+    private MealTemplateApplicationRepository applicationRepository;
+    @Mock
+    private UserPurgeRequestRepository purgeRequestRepository;
+    @Mock
+    private CacheManager cacheManager;
+    @Mock
+    private Cache cache;
+    @Mock
+    private CacheInvalidationProducer cacheInvalidationProducer;
+    @Mock
+    private StringRedisTemplate redisTemplate;
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+    @Mock
+    private ResponseVersionService responseVersionService;
+    @Mock
+    private IntakeReadModelRepository readModelRepository;
+    private UserDataPurgeService purgeService;
+
+    @BeforeEach
+    void setUp() {
+        purgeService = new UserDataPurgeService(intakeRepository, templateRepository,
+                applicationRepository, purgeRequestRepository, cacheManager,
+                cacheInvalidationProducer, redisTemplate, responseVersionService,
+                readModelRepository, 2, Integer.MAX_VALUE, Duration.ofMinutes(5), 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        purgeService.shutdown();
+    }
+
+    @Test
+    void scheduleStoresOnlyUsersNotPendingYet() {
+        when(purgeRequestRepository.findExistingUserIds(anyCollection()))
+                .thenReturn(List.of(8L));
+
+        purgeService.schedule(List.of(7L, 8L, 7L));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UserPurgeRequest>> saved =
+                ArgumentCaptor.forClass(Collection.class);
+        verify(purgeRequestRepository).saveAll(saved.capture());
+        assertThat(saved.getValue())
+                .singleElement()
+                .satisfies(request -> {
+                    assertThat(request.getUserId()).isEqualTo(7L);
+                    assertThat(request.getStage()).isNull();
+                    assertThat(request.getRequestedAt()).isNotNull();
+                });
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void purgePendingPurgesPolledUsersAndKeepsFailedOnesPending() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(purgeRequestRepository.findNextUserIds(PageRequest.of(0, 32)))
+                .thenReturn(List.of(7L, 8L));
+        when(purgeRequestRepository.findById(anyLong()))
+                .thenAnswer(invocation -> Optional.of(request(invocation.getArgument(0))));
+        when(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(intakeRepository.deleteBatchByUserId(7L, 2)).thenReturn(0);
+        when(intakeRepository.deleteBatchByUserId(8L, 2))
+                .thenThrow(new IllegalStateException("db down"));
+        when(cacheManager.getCache(any())).thenReturn(cache);
+
+        purgeService.purgePending();
+
+        verify(purgeRequestRepository, timeout(5000)).deleteById(7L);
+        verify(redisTemplate, timeout(5000)).execute(any(RedisScript.class),
+                eq(List.of("lock:purge:user:8")), anyString());
+        verify(purgeRequestRepository, never()).deleteById(8L);
+    }
+
+    @Test
+    void purgePendingReturnsAtOnceAndSkipsUsersStillBeingPurged() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(purgeRequestRepository.findNextUserIds(PageRequest.of(0, 32)))
+                .thenReturn(List.of(7L));
+        when(purgeRequestRepository.findById(7L)).thenReturn(Optional.of(request(7L)));
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(applicationRepository.deleteBatchByUserId(7L, 2)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return 0;
+        });
+        when(cacheManager.getCache(any())).thenReturn(cache);
+
+        purgeService.purgePending();
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        purgeService.purgePending();
+        release.countDown();
+
+        verify(purgeRequestRepository, timeout(5000)).deleteById(7L);
+        verify(valueOperations).setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void purgeDeletesAllTablesInBatchesAndEvictsCaches() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), eq(Duration.ofMinutes(5))))
+                .thenReturn(true);
+        when(purgeRequestRepository.findById(7L)).thenReturn(Optional.of(request(7L)));
+        when(applicationRepository.deleteBatchByUserId(7L, 2)).thenReturn(1);
+        when(intakeRepository.deleteBatchByUserId(7L, 2)).thenReturn(2, 2, 0);
+        when(templateRepository.deleteItemBatchByUserId(7L, 2)).thenReturn(2, 1);
+        when(templateRepository.deleteBatchByUserId(7L, 2)).thenReturn(1);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(),
+                eq("300000"))).thenReturn(1L);
+        when(cacheManager.getCache(any())).thenReturn(cache);
+
+        boolean completed = purgeService.purge(7L);
+
+        assertThat(completed).isTrue();
+        verify(redisTemplate, times(6)).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)),
+                anyString(), eq("300000"));
+        verify(intakeRepository, times(3)).deleteBatchByUserId(7L, 2);
+        verify(templateRepository, times(2)).deleteItemBatchByUserId(7L, 2);
+        verify(purgeRequestRepository).updateStage(7L, "TEMPLATE_APPLICATIONS");
+        verify(purgeRequestRepository).updateStage(7L, "TEMPLATES");
+        verify(purgeRequestRepository, times(3)).addDeleted(7L, 2);
+        verify(cacheManager).getCache(CacheConstants.SHOPPING_LISTS);
+        verify(cache, times(3)).evict("{7}");
+        verify(cacheInvalidationProducer).resetVersion(7L);
+        verify(responseVersionService).userPurged(7L);
+        verify(readModelRepository).delete(7L);
+        verify(purgeRequestRepository).deleteById(7L);
+        verify(redisTemplate).execute(any(RedisScript.class), eq(List.of(LOCK_KEY)),
+                anyString());
+    }
+
+    @Test
+    void purgeResumesFromCheckpointedStage() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        UserPurgeRequest request = request(7L);
+        request.setStage("TEMPLATE_ITEMS");
+        request.setDeleted(40);
+        when(purgeRequestRepository.findById(7L)).thenReturn(Optional.of(request));
+        when(cacheManager.getCache(any())).thenReturn(cache);
+
+        purgeService.purge(7L);
+
+        verifyNoInteractions(applicationRepository, intakeRepository);
+        verify(templateRepository).deleteItemBatchByUserId(7L, 2);
+        verify(templateRepository).deleteBatchByUserId(7L, 2);
+        verify(purgeRequestRepository, never()).addDeleted(anyLong(), anyLong());
+        verify(purgeRequestRepository).deleteById(7L);
+    }
+
+    @Test
+    void purgeOfCompletedUserDoesNothing() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(purgeRequestRepository.findById(7L)).thenReturn(Optional.empty());
+
+        boolean completed = purgeService.purge(7L);
+
+        assertThat(completed).isTrue();
+        verifyNoInteractions(intakeRepository, templateRepository, applicationRepository,
+                readModelRepository);
+    }
+
+    @Test
+    void purgeStopsWhenLockIsLost() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(true);
+        when(purgeRequestRepository.findById(7L)).thenReturn(Optional.of(request(7L)));
+        when(applicationRepository.deleteBatchByUserId(7L, 2)).thenReturn(2);
+        when(redisTemplate.execute(any(RedisScript.class), eq(List.of(LOCK_KEY)), anyString(),
+                anyString())).thenReturn(0L);
+
+        boolean completed = purgeService.purge(7L);
+
+        assertThat(completed).isFalse();
+        verify(applicationRepository).deleteBatchByUserId(7L, 2);
+        verify(purgeRequestRepository).addDeleted(7L, 2);
+        verifyNoInteractions(intakeRepository, templateRepository, readModelRepository);
+        verify(purgeRequestRepository, never()).deleteById(7L);
+    }
+
+    @Test
+    void purgeSkipsUserLockedByAnotherNode() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.setIfAbsent(eq(LOCK_KEY), anyString(), any(Duration.class)))
+                .thenReturn(false);
+
+        boolean completed = purgeService.purge(7L);
+
+        assertThat(completed).isFalse();
+        verifyNoInteractions(intakeRepository, templateRepository, applicationRepository,
+                purgeRequestRepository);
+    }
+
+    private static UserPurgeRequest request(Long userId) {
+        return UserPurgeRequest.builder()
+                .userId(userId)
+                .requestedAt(Instant.parse("2024-01-01T00:00:00Z"))
+                .build();
+    }
+}
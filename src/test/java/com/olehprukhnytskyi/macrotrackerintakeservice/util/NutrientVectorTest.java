@@ -0,0 +1,141 @@
+package com.olehprukhnytskyi.macrotrackerintakeservice.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.olehprukhnytskyi.macrotrackerintakeservice.model.Nutriments;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.GramsCalculationStrategy;
+import com.olehprukhnytskyi.macrotrackerintakeservice.service.strategy.PiecesCalculationStrategy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class NutrientVectorTest {
+    private static final int SAMPLES = 100_000;
+    private final Random random = new Random(20240115L);
+
+    @Test
+    void gramsMatchBigDecimalHalfUpForRandomInputs() {
+        GramsCalculationStrategy strategy = new GramsCalculationStrategy();
+        for (int i = 0; i < SAMPLES; i++) {
+            Nutriments nutriments = Nutriments.builder()
+                    .caloriesPer100(randomValue())
+                    .carbohydratesPer100(randomValue())
+                    .fatPer100(randomValue())
+                    .proteinPer100(randomValue())
+                    .build();
+            int amount = randomAmount();
+
+            strategy.calculate(nutriments, amount);
+
+            assertThat(nutriments.getCalories())
+                    .isEqualTo(gramsReference(nutriments.getCaloriesPer100(), amount));
+            assertThat(nutriments.getCarbohydrates())
+                    .isEqualTo(gramsReference(nutriments.getCarbohydratesPer100(), amount));
+            assertThat(nutriments.getFat())
+                    .isEqualTo(gramsReference(nutriments.getFatPer100(), amount));
+            assertThat(nutriments.getProtein())
+                    .isEqualTo(gramsReference(nutriments.getProteinPer100(), amount));
+        }
+    }
+
+    @Test
+    void piecesMatchExactBigDecimalProductForRandomInputs() {
+        PiecesCalculationStrategy strategy = new PiecesCalculationStrategy();
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal perPiece = nonNull(randomValue());
+            int amount = randomAmount();
+            Nutriments nutriments = Nutriments.builder()
+                    .caloriesPerPiece(perPiece)
+                    .carbohydratesPerPiece(perPiece)
+                    .fatPerPiece(perPiece)
+                    .proteinPerPiece(perPiece)
+                    .build();
+
+            strategy.calculate(nutriments, amount);
+
+            assertThat(nutriments.getCalories())
+                    .isEqualTo(perPiece.multiply(BigDecimal.valueOf(amount)));
+        }
+    }
+
+    @Test
+    void multiplyDivideMatchesBigDecimalForRandomRatios() {
+        for (int i = 0; i < SAMPLES; i++) {
+            BigDecimal value = nonNull(randomValue());
+            long multiplier = random.nextInt(2_000_000) - 1_000;
+            long divisor = random.nextInt(1_000_000) + 1;
+            int scale = random.nextInt(5);
+
+            BigDecimal actual = NutrientVector.of(value, value, value, value)
+                    .multiplyDivide(multiplier, divisor, scale)
+                    .getFat();
+
+            assertThat(actual).isEqualTo(value.multiply(BigDecimal.valueOf(multiplier))
+                    .divide(BigDecimal.valueOf(divisor), scale, RoundingMode.HALF_UP));
+        }
+    }
+
+    @Test
+    void divideHalfUpMatchesBigDecimalRounding() {
+        for (int i = 0; i < SAMPLES; i++) {
+            long dividend = random.nextLong() >> random.nextInt(64);
+            long divisor = (random.nextLong() >> random.nextInt(64)) | 1;
+
+            assertThat(NutrientVector.divideHalfUp(dividend, divisor))
+                    .isEqualTo(BigDecimal.valueOf(dividend)
+                            .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP)
+                            .longValueExact());
+        }
+    }
+
+    @Test
+    void valuesBeyondLongRangeFallBackToBigDecimal() {
+        BigDecimal huge = new BigDecimal(BigInteger.TWO.pow(80), 3);
+
+        NutrientVector result = NutrientVector.of(huge, BigDecimal.ONE, null, BigDecimal.TEN)
+                .multiplyDivide(Integer.MAX_VALUE, 100, 2);
+
+        assertThat(result.getCalories()).isEqualTo(huge
+                .multiply(BigDecimal.valueOf(Integer.MAX_VALUE))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP));
+        assertThat(result.getCarbohydrates()).isEqualTo(new BigDecimal("21474836.47"));
+        assertThat(result.getFat()).isEqualTo(BigDecimal.ZERO);
+    }
+
+    @Test
+    void divisionByZeroFailsLikeBigDecimal() {
+        NutrientVector vector = NutrientVector.of(BigDecimal.ONE, null, null, null);
+
+        assertThatThrownBy(() -> vector.multiplyDivide(1, 0, 2))
+                .isInstanceOf(ArithmeticException.class);
+    }
+
+    private BigDecimal gramsReference(BigDecimal per100, int amount) {
+        if (per100 == null) {
+            return BigDecimal.ZERO;
+        }
+        return per100.multiply(BigDecimal.valueOf(amount))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+    }
+
+    private BigDecimal randomValue() {
+        return switch (random.nextInt(20)) {
+            case 0 -> null;
+            case 1 -> new BigDecimal(new BigInteger(96, random), random.nextInt(4));
+            case 2 -> BigDecimal.valueOf(Long.MAX_VALUE - random.nextInt(1_000), 2);
+            default -> BigDecimal.valueOf(random.nextInt(1_000_000) - 1_000,
+                    random.nextInt(6));
+        };
+    }
+
+    private BigDecimal nonNull(BigDecimal value) {
+        return value != null ? value : BigDecimal.valueOf(random.nextInt(10_000), 2);
+    }
+
+    private int randomAmount() {
+        return random.nextInt(10) == 0 ? random.nextInt() : random.nextInt(5_000);
+    }
+}